@@ -0,0 +1,164 @@
+package app.capgo.contacts;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.ContactsContract;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists the accounts that hold raw contacts which are not deleted, with optional per-account
+ * contact counts taken with a {@code _COUNT} aggregate.
+ *
+ * The provider cannot group rows, so the distinct accounts are found by a skip scan: each query asks
+ * for the first raw contact ordered after the previous account, limited to one row. Listing costs
+ * one single-row query per account instead of transferring every raw contact. The list and the counts
+ * are kept until {@link #invalidate()} is called on an address book change.
+ */
+final class AccountCatalog {
+
+    private static final String NAME = ContactsContract.RawContacts.ACCOUNT_NAME;
+    private static final String TYPE = ContactsContract.RawContacts.ACCOUNT_TYPE;
+    private static final String NOT_DELETED = ContactsContract.RawContacts.DELETED + " = 0";
+    private static final Uri FIRST_RAW_CONTACT = ContactsContract.RawContacts.CONTENT_URI.buildUpon()
+        .appendQueryParameter(ContactsContract.LIMIT_PARAM_KEY, "1")
+        .build();
+
+    private List<Account> accounts;
+    private int generation;
+
+    /**
+     * @param cache whether the list may be served from and kept for later calls; pass {@code false}
+     *     while nothing would call {@link #invalidate()} on a change
+     */
+    JSArray list(ContentResolver resolver, boolean withCounts, boolean cache) {
+        List<Account> cached;
+        int readGeneration;
+        synchronized (this) {
+            cached = cache ? accounts : null;
+            readGeneration = generation;
+        }
+
+        List<Account> entries = cached != null ? cached : enumerate(resolver);
+        if (withCounts) {
+            for (Account account : entries) {
+                if (account.count == null) {
+                    account.count = count(resolver, account);
+                }
+            }
+        }
+        synchronized (this) {
+            // A change arrived while reading; keep the result for this call only
+            if (cache && generation == readGeneration) {
+                accounts = entries;
+            }
+        }
+
+        JSArray result = new JSArray();
+        for (Account account : entries) {
+            JSObject item = new JSObject();
+            item.put("name", account.name);
+            item.put("type", account.type);
+            if (withCounts) {
+                item.put("count", account.count);
+            }
+            result.put(item);
+        }
+        return result;
+    }
+
+    synchronized void invalidate() {
+        accounts = null;
+        generation++;
+    }
+
+    private static List<Account> enumerate(ContentResolver resolver) {
+        List<Account> entries = new ArrayList<>();
+        Account last = null;
+        while (true) {
+            List<String> selectionArgs = new ArrayList<>();
+            String selection = NOT_DELETED + (last != null ? " AND " + after(last, selectionArgs) : "");
+            try (
+                Cursor cursor = MeasuredCursor.query(
+                    resolver,
+                    FIRST_RAW_CONTACT,
+                    new String[] { NAME, TYPE },
+                    selection,
+                    selectionArgs.isEmpty() ? null : selectionArgs.toArray(new String[0]),
+                    TYPE + " ASC, " + NAME + " ASC"
+                )
+            ) {
+                if (cursor == null || !cursor.moveToFirst()) {
+                    return entries;
+                }
+                last = new Account(cursor.getString(0), cursor.getString(1));
+                entries.add(last);
+            }
+        }
+    }
+
+    /**
+     * Builds the selection of rows ordered after {@code last} by {@code TYPE ASC, NAME ASC}, where
+     * missing values sort first. The local account has neither a name nor a type.
+     */
+    private static String after(Account last, List<String> selectionArgs) {
+        String nameAfter = last.name != null ? NAME + " > ?" : NAME + " IS NOT NULL";
+        if (last.type == null) {
+            if (last.name != null) {
+                selectionArgs.add(last.name);
+            }
+            return "((" + TYPE + " IS NULL AND " + nameAfter + ") OR " + TYPE + " IS NOT NULL)";
+        }
+        selectionArgs.add(last.type);
+        if (last.name != null) {
+            selectionArgs.add(last.name);
+        }
+        selectionArgs.add(last.type);
+        return "((" + TYPE + " = ? AND " + nameAfter + ") OR " + TYPE + " > ?)";
+    }
+
+    private static int count(ContentResolver resolver, Account account) {
+        StringBuilder selection = new StringBuilder(NOT_DELETED);
+        List<String> selectionArgs = new ArrayList<>();
+        appendEquals(selection, selectionArgs, NAME, account.name);
+        appendEquals(selection, selectionArgs, TYPE, account.type);
+
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.RawContacts.CONTENT_URI,
+                new String[] { ContactsContract.RawContacts._COUNT },
+                selection.toString(),
+                selectionArgs.toArray(new String[0]),
+                null
+            )
+        ) {
+            return cursor != null && cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    private static void appendEquals(StringBuilder selection, List<String> selectionArgs, String column, String value) {
+        selection.append(" AND ").append(column);
+        if (value == null) {
+            selection.append(" IS NULL");
+        } else {
+            selection.append(" = ?");
+            selectionArgs.add(value);
+        }
+    }
+
+    private static final class Account {
+
+        final String name;
+        final String type;
+        volatile Integer count;
+
+        Account(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
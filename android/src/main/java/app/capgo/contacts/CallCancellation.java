@@ -0,0 +1,65 @@
+package app.capgo.contacts;
+
+import android.os.CancellationSignal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Cancellation signal of the call running on the current thread.
+ *
+ * Like {@link CallMetrics} it is held in a thread local, so {@link MeasuredCursor} can pass it to every
+ * provider query a call makes, and batch loops can stop between batches, without each helper taking it
+ * as a parameter. A cancelled query or check throws {@link android.os.OperationCanceledException}.
+ */
+final class CallCancellation {
+
+    private static final ThreadLocal<CancellationSignal> CURRENT = new ThreadLocal<>();
+
+    private CallCancellation() {}
+
+    /**
+     * Runs {@code task} with {@code signal} as the signal of the current thread, or just runs it when
+     * {@code signal} is {@code null}.
+     */
+    static <T> T run(CancellationSignal signal, Callable<T> task) throws Exception {
+        if (signal == null) {
+            return task.call();
+        }
+        CancellationSignal previous = CURRENT.get();
+        CURRENT.set(signal);
+        try {
+            // Cancelled while still queued
+            signal.throwIfCanceled();
+            return task.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    static CancellationSignal current() {
+        return CURRENT.get();
+    }
+
+    static void throwIfCanceled() {
+        CancellationSignal signal = CURRENT.get();
+        if (signal != null) {
+            signal.throwIfCanceled();
+        }
+    }
+
+    /**
+     * Makes {@code tasks} observe the signal of the calling thread, if any, when they run on another thread.
+     */
+    static <T> List<Callable<T>> propagate(List<Callable<T>> tasks) {
+        CancellationSignal signal = current();
+        if (signal == null) {
+            return tasks;
+        }
+        List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(() -> run(signal, task));
+        }
+        return wrapped;
+    }
+}
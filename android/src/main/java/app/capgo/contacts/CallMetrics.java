@@ -0,0 +1,195 @@
+package app.capgo.contacts;
+
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * What a single plugin call did against the contacts provider.
+ *
+ * The recorder of the call running on a thread is found through {@link #current()}, so the query and
+ * decoding helpers can report to it without it being passed around; it is {@code null} whenever
+ * metrics are off, which keeps the disabled path to a single lookup. Counters are safe to update
+ * from the fetch pool threads a call fans out to.
+ */
+final class CallMetrics {
+
+    private static final ThreadLocal<CallMetrics> CURRENT = new ThreadLocal<>();
+
+    final String method;
+    final long waitNanos;
+    private final long startNanos;
+
+    final LongAdder queries = new LongAdder();
+    // Estimated from the values read through MeasuredCursor, not the cursor window size
+    final LongAdder cursorBytes = new LongAdder();
+    final LongAdder queryNanos = new LongAdder();
+    final LongAdder decodeNanos = new LongAdder();
+    final LongAdder serializeNanos = new LongAdder();
+    final Map<String, LongAdder> rows = new ConcurrentHashMap<>();
+    final LongAdder payloadBytes = new LongAdder();
+
+    long totalNanos;
+
+    private CallMetrics(String method, long queuedAtNanos) {
+        this.method = method;
+        this.startNanos = System.nanoTime();
+        this.waitNanos = startNanos - queuedAtNanos;
+    }
+
+    /**
+     * Starts recording {@code method} on the calling thread.
+     *
+     * @param queuedAtNanos when the call was handed to the executor, to report the time spent queued
+     */
+    static CallMetrics begin(String method, long queuedAtNanos) {
+        CallMetrics metrics = new CallMetrics(method, queuedAtNanos);
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static CallMetrics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops recording on the calling thread and totals the call.
+     */
+    void end() {
+        totalNanos = System.nanoTime() - startNanos;
+        CURRENT.remove();
+    }
+
+    /**
+     * Makes {@code tasks} record into the call running on the calling thread, if any, when they run
+     * on another thread.
+     */
+    static <T> List<Callable<T>> propagate(List<Callable<T>> tasks) {
+        CallMetrics metrics = current();
+        if (metrics == null) {
+            return tasks;
+        }
+        List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(() -> {
+                CallMetrics previous = CURRENT.get();
+                CURRENT.set(metrics);
+                try {
+                    return task.call();
+                } finally {
+                    CURRENT.set(previous);
+                }
+            });
+        }
+        return wrapped;
+    }
+
+    void recordQuery(long nanos) {
+        queries.increment();
+        queryNanos.add(nanos);
+    }
+
+    void recordRow(String kind) {
+        LongAdder count = rows.get(kind);
+        if (count == null) {
+            count = rows.computeIfAbsent(kind, (key) -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Counts {@code payload} toward the size of what the call returned or emitted. The size is
+     * estimated by walking the object rather than serializing it, and the payload is not kept, so
+     * streamed pages can be released as soon as they are emitted.
+     */
+    void addPayload(JSObject payload) {
+        payloadBytes.add(estimateJsonBytes(payload));
+    }
+
+    /**
+     * Size of {@code value} as compact JSON in UTF-8, ignoring the escaping of special characters.
+     */
+    static long estimateJsonBytes(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            return 4;
+        }
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            long size = 2 + Math.max(0, object.length() - 1);
+            for (Iterator<String> keys = object.keys(); keys.hasNext();) {
+                String key = keys.next();
+                size += utf8Length(key) + 3 + estimateJsonBytes(object.opt(key));
+            }
+            return size;
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            long size = 2 + Math.max(0, array.length() - 1);
+            for (int i = 0; i < array.length(); i++) {
+                size += estimateJsonBytes(array.opt(i));
+            }
+            return size;
+        }
+        if (value instanceof String) {
+            return utf8Length((String) value) + 2;
+        }
+        return String.valueOf(value).length();
+    }
+
+    /**
+     * Bytes {@code value} takes encoded as UTF-8, without encoding it.
+     */
+    static long utf8Length(String value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // The pair is one four-byte code point
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    JSObject toJSObject() {
+        JSObject rowsByKind = new JSObject();
+        long rowsScanned = 0;
+        for (Map.Entry<String, LongAdder> entry : rows.entrySet()) {
+            long count = entry.getValue().sum();
+            rowsByKind.put(entry.getKey(), count);
+            rowsScanned += count;
+        }
+
+        JSObject result = new JSObject();
+        result.put("method", method);
+        result.put("queries", queries.sum());
+        result.put("rowsScanned", rowsScanned);
+        result.put("rowsByMimeType", rowsByKind);
+        result.put("cursorBytes", cursorBytes.sum());
+        result.put("payloadBytes", payloadBytes.sum());
+        result.put("waitMs", toMillis(waitNanos));
+        result.put("queryMs", toMillis(queryNanos.sum()));
+        result.put("decodeMs", toMillis(decodeNanos.sum()));
+        result.put("serializeMs", toMillis(serializeNanos.sum()));
+        result.put("totalMs", toMillis(totalNanos));
+        return result;
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
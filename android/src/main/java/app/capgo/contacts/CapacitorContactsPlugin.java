@@ -1,14 +1,21 @@
 package app.capgo.contacts;
 
 import android.Manifest;
-import android.annotation.SuppressLint;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentUris;
+import android.content.ContentValues;
 import android.content.Intent;
+import android.database.ContentObserver;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Bundle;
+import android.os.CancellationSignal;
+import android.os.OperationCanceledException;
 import android.provider.ContactsContract;
 import android.provider.Settings;
+import android.telephony.PhoneNumberUtils;
 import android.util.Base64;
 import androidx.annotation.NonNull;
 import com.getcapacitor.JSArray;
@@ -24,11 +31,20 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 @CapacitorPlugin(
     name = "CapacitorContacts",
@@ -42,6 +58,67 @@ public class CapacitorContactsPlugin extends Plugin {
 
     private final String pluginVersion = "8.0.19";
     private static final int BATCH_SIZE = 50;
+    private static final String EVENT_CONTACTS_PAGE = "contactsPage";
+    private static final String EVENT_CONTACTS_STREAM_COMPLETE = "contactsStreamComplete";
+    private static final String PHOTO_MODE_HANDLE = "handle";
+    private static final String SOURCE_SNAPSHOT = "snapshot";
+    private static final String FORMAT_COLUMNAR = "columnar";
+    private static final String EVENT_SNAPSHOT_UPDATED = "snapshotUpdated";
+    private static final String EVENT_PERFORMANCE_METRICS = "performanceMetrics";
+    private static final int DEFAULT_CACHE_SIZE = 500;
+    private static final int DEFAULT_QUEUE_DEPTH = 64;
+    private static final int PHONE_LOOKUP_CACHE_SIZE = 1000;
+    // Passed to putCached for reads made while no observer would drop the result on a change
+    private static final long UNOBSERVED_GENERATION = -1;
+
+    private ContactsExecutor executor;
+    private ContactCache contactCache;
+    private final PhoneLookupCache phoneLookupCache = new PhoneLookupCache(PHONE_LOOKUP_CACHE_SIZE);
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final AccountCatalog accountCatalog = new AccountCatalog();
+    private final Map<String, CancellationSignal> cancellableCalls = new ConcurrentHashMap<>();
+    private ContentObserver contactsObserver;
+    private ContactSnapshot snapshot;
+    private final AtomicBoolean snapshotReconcileScheduled = new AtomicBoolean();
+    private PerformanceMetrics performanceMetrics;
+
+    @Override
+    public void load() {
+        super.load();
+
+        // Revoking the permission restarts the app, so this is where a snapshot left behind is found
+        if (!hasReadPermission()) {
+            ContactSnapshot.delete(getContext());
+        }
+        snapshot = new ContactSnapshot(getContext());
+        executor = new ContactsExecutor(ContactsExecutor.defaultReadThreads(), getConfig().getInt("queueDepth", DEFAULT_QUEUE_DEPTH));
+
+        if (getConfig().getBoolean("cache", false)) {
+            contactCache = new ContactCache(getConfig().getInt("cacheSize", DEFAULT_CACHE_SIZE));
+        }
+        if (getConfig().getBoolean("performanceMetrics", false)) {
+            performanceMetrics = new PerformanceMetrics();
+        }
+        // Without READ_CONTACTS yet, this waits for the permission callback or the first cached read
+        observeContacts();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        synchronized (this) {
+            if (contactsObserver != null) {
+                getContext().getContentResolver().unregisterContentObserver(contactsObserver);
+                contactsObserver = null;
+            }
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (snapshot != null) {
+            snapshot.close();
+        }
+        super.handleOnDestroy();
+    }
 
     // MARK: - Implemented API surface
 
@@ -52,23 +129,77 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        ContentResolver resolver = getContext().getContentResolver();
-        try (
-            Cursor cursor = resolver.query(
-                ContactsContract.Contacts.CONTENT_URI,
-                new String[] { ContactsContract.Contacts._ID },
-                null,
-                null,
-                null
-            )
-        ) {
-            int count = cursor != null ? cursor.getCount() : 0;
-            JSObject result = new JSObject();
-            result.put("count", count);
-            call.resolve(result);
-        } catch (Exception ex) {
-            call.reject("Failed to count contacts.", null, ex);
+        ContactCountQuery query = ContactCountQuery.from(call);
+
+        executeRead(call, () -> {
+            String cacheKey = query.cacheKey();
+            Integer cachedCount = getCached(cacheKey);
+            if (cachedCount != null) {
+                resolve(call, new JSObject().put("count", cachedCount));
+                return;
+            }
+
+            try {
+                long generation = cacheGeneration();
+                int count = query.count(getContext().getContentResolver());
+                putCached(cacheKey, count, 1, generation);
+                JSObject result = new JSObject();
+                result.put("count", count);
+                resolve(call, result);
+            } catch (Exception ex) {
+                call.reject("Failed to count contacts.", null, ex);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getSectionIndex(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
         }
+
+        executeRead(call, () -> {
+            // The index is computed over the whole selection by a separate grouped query, so a single
+            // row is enough to get it without filling a cursor window with every contact
+            Uri indexUri = ContactsContract.Contacts.CONTENT_URI.buildUpon()
+                .appendQueryParameter(ContactsContract.Contacts.EXTRA_ADDRESS_BOOK_INDEX, "true")
+                .appendQueryParameter(ContactsContract.LIMIT_PARAM_KEY, "1")
+                .build();
+            ContentResolver resolver = getContext().getContentResolver();
+            try (
+                Cursor cursor = MeasuredCursor.query(
+                    resolver,
+                    indexUri,
+                    new String[] { ContactsContract.Contacts._ID },
+                    null,
+                    null,
+                    ContactsContract.Contacts.DISPLAY_NAME_PRIMARY + " ASC, " + ContactsContract.Contacts._ID + " ASC"
+                )
+            ) {
+                JSArray sections = new JSArray();
+                int total = 0;
+                Bundle extras = cursor != null ? cursor.getExtras() : null;
+                if (extras != null && extras.containsKey(ContactsContract.Contacts.EXTRA_ADDRESS_BOOK_INDEX_TITLES)) {
+                    String[] titles = extras.getStringArray(ContactsContract.Contacts.EXTRA_ADDRESS_BOOK_INDEX_TITLES);
+                    int[] counts = extras.getIntArray(ContactsContract.Contacts.EXTRA_ADDRESS_BOOK_INDEX_COUNTS);
+                    for (int i = 0; titles != null && counts != null && i < Math.min(titles.length, counts.length); i++) {
+                        JSObject section = new JSObject();
+                        section.put("title", titles[i]);
+                        section.put("offset", total);
+                        section.put("count", counts[i]);
+                        sections.put(section);
+                        total += counts[i];
+                    }
+                }
+                JSObject result = new JSObject();
+                result.put("sections", sections);
+                result.put("total", total);
+                resolve(call, result);
+            } catch (Exception ex) {
+                call.reject("Failed to get section index.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
@@ -81,19 +212,248 @@ public class CapacitorContactsPlugin extends Plugin {
         Integer limit = call.getInt("limit", null);
         Integer offset = call.getInt("offset", null);
         Set<String> fields = parseFieldsArray(call);
+        boolean photoHandles = PHOTO_MODE_HANDLE.equals(call.getString("photoMode"));
+        boolean parallel = Boolean.TRUE.equals(call.getBoolean("parallel", false));
+        boolean columnar = FORMAT_COLUMNAR.equals(call.getString("format"));
+        String pageToken = call.getString("pageToken");
+        String callId = call.getString("callId");
+        PageToken after = null;
+        if (pageToken != null) {
+            if (offset != null) {
+                call.reject("offset cannot be combined with pageToken.");
+                return;
+            }
+            try {
+                after = PageToken.decode(pageToken);
+            } catch (IllegalArgumentException ex) {
+                call.reject("Invalid pageToken.", null, ex);
+                return;
+            }
+        }
+        PageToken startAfter = after;
 
-        try {
-            List<ContactBuilder> builders = fetchContacts(limit, offset, fields);
-            JSArray contacts = new JSArray();
-            for (ContactBuilder builder : builders) {
-                contacts.put(builder.toJSObject(fields));
+        if (SOURCE_SNAPSHOT.equals(call.getString("source"))) {
+            executeRead(call, () -> {
+                try {
+                    resolve(call, readSnapshot(limit, offset, startAfter, fields));
+                } catch (Exception ex) {
+                    call.reject("Failed to read contacts snapshot.", null, ex);
+                }
+            });
+            return;
+        }
+
+        CancellationSignal signal = null;
+        if (callId != null) {
+            signal = new CancellationSignal();
+            if (cancellableCalls.putIfAbsent(callId, signal) != null) {
+                call.reject("callId is already in use.");
+                return;
             }
-            JSObject result = new JSObject();
-            result.put("contacts", contacts);
-            call.resolve(result);
-        } catch (Exception ex) {
-            call.reject("Failed to fetch contacts.", null, ex);
         }
+        CancellationSignal cancellation = signal;
+
+        String cacheKey = ContactCache.listKey(limit, offset, pageToken, fields, photoHandles);
+        // A cancellable call runs on its own, so cancelling it cannot fail identical calls sharing its read
+        boolean accepted = executeShared(
+            call,
+            callId != null ? cacheKey + "|" + callId : cacheKey,
+            () ->
+                CallCancellation.run(cancellation, () -> {
+                    List<ContactBuilder> builders = getCached(cacheKey);
+                    if (builders == null) {
+                        long generation = cacheGeneration();
+                        builders = fetchContacts(limit, offset, startAfter, fields, photoHandles, parallel);
+                        putCached(cacheKey, builders, Math.max(1, builders.size()), generation);
+                    }
+                    return builders;
+                }),
+            (builders, error) -> {
+                if (callId != null) {
+                    cancellableCalls.remove(callId, cancellation);
+                }
+                if (error instanceof OperationCanceledException || (cancellation != null && cancellation.isCanceled())) {
+                    call.reject("Call was cancelled.");
+                    return;
+                }
+                if (error != null) {
+                    call.reject("Failed to fetch contacts.", null, error);
+                    return;
+                }
+                try {
+                    JSObject result = new JSObject();
+                    // A short page is the last one
+                    if (limit != null && limit > 0 && builders.size() == limit) {
+                        result.put("nextPageToken", PageToken.after(builders.get(builders.size() - 1)).encode());
+                    }
+                    if (columnar) {
+                        result.put("contacts", new JSArray());
+                        result.put("columnar", ColumnarEncoder.encode(builders, fields));
+                    } else {
+                        JSArray contacts = new JSArray();
+                        for (ContactBuilder builder : builders) {
+                            if (cancellation != null && cancellation.isCanceled()) {
+                                call.reject("Call was cancelled.");
+                                return;
+                            }
+                            contacts.put(builder.toJSObject(fields));
+                        }
+                        result.put("contacts", contacts);
+                    }
+                    resolve(call, result);
+                } catch (Exception ex) {
+                    call.reject("Failed to fetch contacts.", null, ex);
+                }
+            }
+        );
+        if (!accepted && callId != null) {
+            cancellableCalls.remove(callId, cancellation);
+        }
+    }
+
+    @PluginMethod
+    public void cancel(PluginCall call) {
+        String callId = call.getString("callId");
+        if (callId == null) {
+            call.reject("Missing callId.");
+            return;
+        }
+
+        CancellationSignal signal = cancellableCalls.remove(callId);
+        if (signal != null) {
+            signal.cancel();
+        }
+        call.resolve(new JSObject().put("cancelled", signal != null));
+    }
+
+    @PluginMethod
+    public void streamContacts(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
+
+        Integer limit = call.getInt("limit", null);
+        Integer offset = call.getInt("offset", null);
+        Set<String> fields = parseFieldsArray(call);
+        boolean photoHandles = PHOTO_MODE_HANDLE.equals(call.getString("photoMode"));
+
+        executeRead(call, () -> {
+            try {
+                int total = streamContactPages(limit, offset, fields, photoHandles);
+                JSObject result = new JSObject();
+                result.put("total", total);
+                notifyListeners(EVENT_CONTACTS_STREAM_COMPLETE, result);
+                resolve(call, result);
+            } catch (Exception ex) {
+                call.reject("Failed to stream contacts.", null, ex);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getChangedContacts(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
+
+        long since = call.getLong("since", 0L);
+        Set<String> fields = parseFieldsArray(call);
+        boolean photoHandles = PHOTO_MODE_HANDLE.equals(call.getString("photoMode"));
+
+        executeRead(call, () -> {
+            try {
+                // Taken before querying so edits made while this call runs are picked up by the next one
+                long syncToken = System.currentTimeMillis();
+                Map<String, String> displayNames = queryDisplayNames(
+                    ContactsContract.Contacts.CONTENT_URI,
+                    ContactsContract.Contacts.CONTACT_LAST_UPDATED_TIMESTAMP + " > ?",
+                    new String[] { String.valueOf(since) }
+                );
+
+                JSArray contacts = new JSArray();
+                for (ContactBuilder builder : hydrateContacts(displayNames, fields, photoHandles)) {
+                    contacts.put(builder.toJSObject(fields));
+                }
+
+                // Tombstones older than DAYS_KEPT_MILLISECONDS are purged, so deletedIds may miss some
+                boolean fullSyncRequired = since > 0 && syncToken - since >= ContactsContract.DeletedContacts.DAYS_KEPT_MILLISECONDS;
+
+                JSObject result = new JSObject();
+                result.put("contacts", contacts);
+                result.put("deletedIds", new JSArray(since > 0 ? queryDeletedContactIds(since) : new ArrayList<String>()));
+                result.put("syncToken", syncToken);
+                result.put("fullSyncRequired", fullSyncRequired);
+                resolve(call, result);
+            } catch (Exception ex) {
+                call.reject("Failed to fetch changed contacts.", null, ex);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void searchContacts(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
+
+        String query = call.getString("query");
+        if (query == null) {
+            call.reject("Missing search query.");
+            return;
+        }
+
+        Integer limit = call.getInt("limit", null);
+        Set<String> fields = parseFieldsArray(call);
+        boolean photoHandles = PHOTO_MODE_HANDLE.equals(call.getString("photoMode"));
+
+        executeRead(call, () -> {
+            try {
+                JSArray contacts = new JSArray();
+                String trimmed = query.trim();
+                if (!trimmed.isEmpty()) {
+                    for (ContactBuilder builder : hydrateContacts(queryMatchingDisplayNames(trimmed, limit), fields, photoHandles)) {
+                        contacts.put(builder.toJSObject(fields));
+                    }
+                }
+                resolve(call, new JSObject().put("contacts", contacts));
+            } catch (Exception ex) {
+                call.reject("Failed to search contacts.", null, ex);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void lookupPhoneNumbers(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
+
+        JSArray numbers = call.getArray("numbers");
+        if (numbers == null) {
+            call.reject("Missing phone numbers.");
+            return;
+        }
+
+        executeRead(call, () -> {
+            try {
+                JSArray results = new JSArray();
+                for (String number : readStringEntries(numbers)) {
+                    // An entry that is not a string matches no contact
+                    JSObject match = number != null ? lookupPhoneNumber(number) : null;
+                    JSObject result = new JSObject();
+                    result.put("number", number != null ? number : JSONObject.NULL);
+                    result.put("contact", match != null ? match : JSONObject.NULL);
+                    results.put(result);
+                }
+                resolve(call, new JSObject().put("results", results));
+            } catch (Exception ex) {
+                call.reject("Failed to look up phone numbers.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
@@ -109,54 +469,133 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        try {
-            Set<String> fields = parseFieldsArray(call);
-            ContactBuilder builder = fetchContact(identifier, fields);
-            if (builder == null) {
-                call.resolve(new JSObject().put("contact", null));
-                return;
+        Set<String> fields = parseFieldsArray(call);
+        String cacheKey = ContactCache.contactKey(identifier, fields);
+        executeShared(
+            call,
+            cacheKey,
+            () -> {
+                ContactBuilder builder = getCached(cacheKey);
+                if (builder == null) {
+                    long generation = cacheGeneration();
+                    builder = fetchContact(identifier, fields);
+                    if (builder != null) {
+                        putCached(cacheKey, builder, 1, generation);
+                    }
+                }
+                return builder;
+            },
+            (builder, error) -> {
+                if (error != null) {
+                    call.reject("Failed to fetch contact.", null, error);
+                    return;
+                }
+                try {
+                    JSObject result = new JSObject();
+                    result.put("contact", builder != null ? builder.toJSObject(fields) : null);
+                    resolve(call, result);
+                } catch (Exception ex) {
+                    call.reject("Failed to fetch contact.", null, ex);
+                }
             }
+        );
+    }
 
-            JSObject result = new JSObject();
-            result.put("contact", builder.toJSObject(fields));
-            call.resolve(result);
-        } catch (Exception ex) {
-            call.reject("Failed to fetch contact.", null, ex);
+    @PluginMethod
+    public void getContactsByIds(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
         }
+
+        JSArray idsArray = call.getArray("ids");
+        if (idsArray == null) {
+            call.reject("Missing contact identifiers.");
+            return;
+        }
+        List<String> ids = readStringEntries(idsArray);
+        Set<String> fields = parseFieldsArray(call);
+
+        executeRead(call, () -> {
+            try {
+                Map<String, ContactBuilder> builders = new HashMap<>();
+                List<String> missingIds = new ArrayList<>();
+                for (String id : ids) {
+                    if (id == null || builders.containsKey(id) || missingIds.contains(id)) {
+                        continue;
+                    }
+                    ContactBuilder cached = getCached(ContactCache.contactKey(id, fields));
+                    if (cached != null) {
+                        builders.put(id, cached);
+                    } else {
+                        missingIds.add(id);
+                    }
+                }
+
+                long generation = cacheGeneration();
+                for (int i = 0; i < missingIds.size(); i += BATCH_SIZE) {
+                    fetchContactsById(missingIds.subList(i, Math.min(i + BATCH_SIZE, missingIds.size())), fields, (builder) -> {
+                        builders.put(builder.id, builder);
+                        putCached(ContactCache.contactKey(builder.id, fields), builder, 1, generation);
+                    });
+                }
+
+                JSArray contacts = new JSArray();
+                for (String id : ids) {
+                    ContactBuilder builder = id != null ? builders.get(id) : null;
+                    contacts.put(builder != null ? builder.toJSObject(fields) : JSONObject.NULL);
+                }
+                resolve(call, new JSObject().put("contacts", contacts));
+            } catch (Exception ex) {
+                call.reject("Failed to fetch contacts.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
-    public void getAccounts(PluginCall call) {
-        ContentResolver resolver = getContext().getContentResolver();
-        JSArray accounts = new JSArray();
-        Set<String> seen = new HashSet<>();
+    public void getContactPhoto(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
 
-        try (
-            Cursor cursor = resolver.query(
-                ContactsContract.RawContacts.CONTENT_URI,
-                new String[] { ContactsContract.RawContacts.ACCOUNT_NAME, ContactsContract.RawContacts.ACCOUNT_TYPE },
-                null,
-                null,
-                null
-            )
-        ) {
-            if (cursor != null) {
-                while (cursor.moveToNext()) {
-                    String name = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.RawContacts.ACCOUNT_NAME));
-                    String type = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.RawContacts.ACCOUNT_TYPE));
-                    String key = (name == null ? "" : name) + "|" + (type == null ? "" : type);
-                    if (seen.add(key)) {
-                        JSObject account = new JSObject();
-                        account.put("name", name);
-                        account.put("type", type);
-                        accounts.put(account);
+        String identifier = call.getString("id");
+        if (identifier == null) {
+            call.reject("Missing contact identifier.");
+            return;
+        }
+
+        boolean preferHighres = !"thumbnail".equals(call.getString("size", "full"));
+
+        executeRead(call, () -> {
+            try {
+                ContentResolver resolver = getContext().getContentResolver();
+                Uri contactUri = ContentUris.withAppendedId(ContactsContract.Contacts.CONTENT_URI, Long.parseLong(identifier));
+                String photo = null;
+                try (InputStream stream = ContactsContract.Contacts.openContactPhotoInputStream(resolver, contactUri, preferHighres)) {
+                    if (stream != null) {
+                        photo = Base64.encodeToString(readAllBytes(stream), Base64.NO_WRAP);
                     }
                 }
+                resolve(call, new JSObject().put("photo", photo));
+            } catch (Exception ex) {
+                call.reject("Failed to fetch contact photo.", null, ex);
             }
-            call.resolve(new JSObject().put("accounts", accounts));
-        } catch (Exception ex) {
-            call.reject("Failed to fetch accounts.", null, ex);
-        }
+        });
+    }
+
+    @PluginMethod
+    public void getAccounts(PluginCall call) {
+        boolean withCounts = Boolean.TRUE.equals(call.getBoolean("withCounts", false));
+
+        executeRead(call, () -> {
+            try {
+                JSArray accounts = accountCatalog.list(getContext().getContentResolver(), withCounts, observeContacts());
+                resolve(call, new JSObject().put("accounts", accounts));
+            } catch (Exception ex) {
+                call.reject("Failed to fetch accounts.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
@@ -219,10 +658,39 @@ public class CapacitorContactsPlugin extends Plugin {
 
     @PermissionCallback
     public void handleRequestPermissions(PluginCall call) {
+        observeContacts();
         JSObject status = buildPermissionStatus();
         call.resolve(status);
     }
 
+    @PluginMethod
+    public void getCacheStats(PluginCall call) {
+        if (contactCache == null) {
+            JSObject stats = new JSObject();
+            stats.put("enabled", false);
+            stats.put("size", 0);
+            stats.put("maxSize", 0);
+            stats.put("hits", 0);
+            stats.put("misses", 0);
+            stats.put("evictions", 0);
+            call.resolve(stats);
+            return;
+        }
+        call.resolve(contactCache.stats());
+    }
+
+    @PluginMethod
+    public void getPerformanceMetrics(PluginCall call) {
+        if (performanceMetrics == null) {
+            JSObject metrics = new JSObject();
+            metrics.put("enabled", false);
+            metrics.put("methods", new JSObject());
+            call.resolve(metrics);
+            return;
+        }
+        call.resolve(performanceMetrics.snapshot(Boolean.TRUE.equals(call.getBoolean("reset", false))));
+    }
+
     @PluginMethod
     public void getPluginVersion(PluginCall call) {
         try {
@@ -249,12 +717,15 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        try {
-            String contactId = insertContact(contactData);
-            call.resolve(new JSObject().put("id", contactId));
-        } catch (Exception ex) {
-            call.reject("Failed to create contact.", null, ex);
-        }
+        executeWrite(call, () -> {
+            try {
+                String contactId = insertContact(contactData);
+                invalidateCachedContact(contactId);
+                resolve(call, new JSObject().put("id", contactId));
+            } catch (Exception ex) {
+                call.reject("Failed to create contact.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
@@ -272,12 +743,15 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        try {
-            updateContact(contactId, contactData);
-            call.resolve();
-        } catch (Exception ex) {
-            call.reject("Failed to update contact.", null, ex);
-        }
+        executeWrite(call, () -> {
+            try {
+                updateContact(contactId, contactData);
+                invalidateCachedContact(contactId);
+                resolve(call);
+            } catch (Exception ex) {
+                call.reject("Failed to update contact.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
@@ -294,55 +768,286 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        try {
-            ContentResolver resolver = getContext().getContentResolver();
-            Uri contactUri = ContentUris.withAppendedId(ContactsContract.Contacts.CONTENT_URI, Long.parseLong(contactId));
-            int rowsDeleted = resolver.delete(contactUri, null, null);
-            if (rowsDeleted > 0) {
-                call.resolve();
-            } else {
-                call.reject("Contact not found or could not be deleted.");
+        executeWrite(call, () -> {
+            try {
+                ContentResolver resolver = getContext().getContentResolver();
+                Uri contactUri = ContentUris.withAppendedId(ContactsContract.Contacts.CONTENT_URI, Long.parseLong(contactId));
+                int rowsDeleted = resolver.delete(contactUri, null, null);
+                invalidateCachedContact(contactId);
+                if (rowsDeleted > 0) {
+                    resolve(call);
+                } else {
+                    call.reject("Contact not found or could not be deleted.");
+                }
+            } catch (Exception ex) {
+                call.reject("Failed to delete contact.", null, ex);
             }
-        } catch (Exception ex) {
-            call.reject("Failed to delete contact.", null, ex);
-        }
+        });
     }
 
-    // MARK: - Group operations
-
     @PluginMethod
-    public void getGroups(PluginCall call) {
-        if (!hasReadPermission()) {
-            call.reject("READ_CONTACTS permission not granted.");
+    public void createContacts(PluginCall call) {
+        if (!hasWritePermission()) {
+            call.reject("WRITE_CONTACTS permission not granted.");
             return;
         }
 
-        ContentResolver resolver = getContext().getContentResolver();
-        JSArray groups = new JSArray();
-
-        try (
-            Cursor cursor = resolver.query(
-                ContactsContract.Groups.CONTENT_URI,
-                new String[] { ContactsContract.Groups._ID, ContactsContract.Groups.TITLE },
-                null,
-                null,
-                ContactsContract.Groups.TITLE + " ASC"
-            )
-        ) {
-            if (cursor != null) {
-                while (cursor.moveToNext()) {
-                    String id = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Groups._ID));
-                    String name = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Groups.TITLE));
-                    JSObject group = new JSObject();
-                    group.put("id", id);
-                    group.put("name", name);
-                    groups.put(group);
+        JSArray contactsData = call.getArray("contacts");
+        if (contactsData == null) {
+            call.reject("Missing contacts data.");
+            return;
+        }
+
+        executeWrite(call, () -> {
+            try {
+                List<JSObject> items = new ArrayList<>();
+                for (int i = 0; i < contactsData.length(); i++) {
+                    items.add(JSObject.fromJSONObject(contactsData.getJSONObject(i)));
                 }
+
+                String[] errors = new String[items.size()];
+                ContentProviderResult[] firstResults = applyInChunks(items, this::appendInsertOperations, errors);
+
+                List<String> rawContactIds = new ArrayList<>();
+                for (ContentProviderResult result : firstResults) {
+                    if (result != null && result.uri != null) {
+                        rawContactIds.add(result.uri.getLastPathSegment());
+                    }
+                }
+                Map<String, String> contactIds = queryContactIdsForRawContacts(rawContactIds);
+
+                String[] ids = new String[items.size()];
+                for (int i = 0; i < items.size(); i++) {
+                    if (errors[i] != null) {
+                        continue;
+                    }
+                    String rawContactId = firstResults[i] != null && firstResults[i].uri != null
+                        ? firstResults[i].uri.getLastPathSegment()
+                        : null;
+                    ids[i] = rawContactId != null ? contactIds.get(rawContactId) : null;
+                    if (ids[i] == null) {
+                        errors[i] = "Failed to create contact";
+                    } else {
+                        invalidateCachedContact(ids[i]);
+                    }
+                }
+
+                resolve(call, new JSObject().put("results", buildBulkResults(ids, errors)));
+            } catch (Exception ex) {
+                call.reject("Failed to create contacts.", null, ex);
             }
-            call.resolve(new JSObject().put("groups", groups));
-        } catch (Exception ex) {
-            call.reject("Failed to fetch groups.", null, ex);
+        });
+    }
+
+    @PluginMethod
+    public void updateContacts(PluginCall call) {
+        if (!hasWritePermission()) {
+            call.reject("WRITE_CONTACTS permission not granted.");
+            return;
+        }
+
+        JSArray updatesData = call.getArray("contacts");
+        if (updatesData == null) {
+            call.reject("Missing contacts data.");
+            return;
+        }
+
+        executeWrite(call, () -> {
+            try {
+                List<String> contactIds = new ArrayList<>();
+                List<JSObject> contactsData = new ArrayList<>();
+                for (int i = 0; i < updatesData.length(); i++) {
+                    JSONObject update = updatesData.getJSONObject(i);
+                    contactIds.add(update.optString("id", null));
+                    JSONObject contactData = update.optJSONObject("contact");
+                    contactsData.add(contactData != null ? JSObject.fromJSONObject(contactData) : null);
+                }
+
+                List<String> knownIds = new ArrayList<>(contactIds);
+                knownIds.removeAll(Collections.singleton(null));
+                Map<String, String> rawContactIds = queryRawContactIds(knownIds);
+                Map<String, List<ContactRowDiff.Row>> existingRows = ContactRowDiff.queryRows(
+                    getContext().getContentResolver(),
+                    new ArrayList<>(rawContactIds.values())
+                );
+                List<Integer> items = new ArrayList<>();
+                for (int i = 0; i < contactIds.size(); i++) {
+                    items.add(i);
+                }
+
+                String[] errors = new String[items.size()];
+                applyInChunks(
+                    items,
+                    (ops, index) -> {
+                        if (contactIds.get(index) == null || contactsData.get(index) == null) {
+                            throw new Exception("Missing contact identifier or data.");
+                        }
+                        String rawContactId = rawContactIds.get(contactIds.get(index));
+                        appendUpdateOperations(ops, rawContactId, existingRows.get(rawContactId), contactsData.get(index));
+                    },
+                    errors
+                );
+
+                String[] ids = contactIds.toArray(new String[0]);
+                for (int i = 0; i < ids.length; i++) {
+                    if (errors[i] == null) {
+                        invalidateCachedContact(ids[i]);
+                    }
+                }
+
+                resolve(call, new JSObject().put("results", buildBulkResults(ids, errors)));
+            } catch (Exception ex) {
+                call.reject("Failed to update contacts.", null, ex);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void deleteContacts(PluginCall call) {
+        if (!hasWritePermission()) {
+            call.reject("WRITE_CONTACTS permission not granted.");
+            return;
         }
+
+        JSArray idsData = call.getArray("ids");
+        if (idsData == null) {
+            call.reject("Missing contact identifiers.");
+            return;
+        }
+
+        executeWrite(call, () -> {
+            try {
+                List<String> contactIds = readStringEntries(idsData);
+                String[] errors = new String[contactIds.size()];
+                ContentProviderResult[] firstResults = applyInChunks(
+                    contactIds,
+                    (ops, contactId) ->
+                        ops.add(
+                            ContentProviderOperation.newDelete(
+                                ContentUris.withAppendedId(ContactsContract.Contacts.CONTENT_URI, parseContactId(contactId))
+                            )
+                                .withYieldAllowed(true)
+                                .build()
+                        ),
+                    errors
+                );
+
+                String[] ids = contactIds.toArray(new String[0]);
+                for (int i = 0; i < ids.length; i++) {
+                    if (errors[i] != null) {
+                        continue;
+                    }
+                    if (firstResults[i] == null || firstResults[i].count == null || firstResults[i].count == 0) {
+                        errors[i] = "Contact not found or could not be deleted.";
+                    } else {
+                        invalidateCachedContact(ids[i]);
+                    }
+                }
+
+                resolve(call, new JSObject().put("results", buildBulkResults(ids, errors)));
+            } catch (Exception ex) {
+                call.reject("Failed to delete contacts.", null, ex);
+            }
+        });
+    }
+
+    // MARK: - Group operations
+
+    @PluginMethod
+    public void getGroups(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
+
+        boolean withCounts = Boolean.TRUE.equals(call.getBoolean("withCounts", false));
+
+        executeRead(call, () -> {
+            ContentResolver resolver = getContext().getContentResolver();
+            JSArray groups = new JSArray();
+            // The summary URI counts the members of each group in the same query
+            Uri uri = withCounts ? ContactsContract.Groups.CONTENT_SUMMARY_URI : ContactsContract.Groups.CONTENT_URI;
+            String[] projection = withCounts
+                ? new String[] { ContactsContract.Groups._ID, ContactsContract.Groups.TITLE, ContactsContract.Groups.SUMMARY_COUNT }
+                : new String[] { ContactsContract.Groups._ID, ContactsContract.Groups.TITLE };
+
+            try (Cursor cursor = MeasuredCursor.query(resolver, uri, projection, null, null, ContactsContract.Groups.TITLE + " ASC")) {
+                if (cursor != null) {
+                    int idIndex = cursor.getColumnIndexOrThrow(ContactsContract.Groups._ID);
+                    int titleIndex = cursor.getColumnIndexOrThrow(ContactsContract.Groups.TITLE);
+                    int countIndex = withCounts ? cursor.getColumnIndexOrThrow(ContactsContract.Groups.SUMMARY_COUNT) : -1;
+                    while (cursor.moveToNext()) {
+                        JSObject group = new JSObject();
+                        group.put("id", cursor.getString(idIndex));
+                        group.put("name", cursor.getString(titleIndex));
+                        if (withCounts) {
+                            group.put("count", cursor.getInt(countIndex));
+                        }
+                        groups.put(group);
+                    }
+                }
+                resolve(call, new JSObject().put("groups", groups));
+            } catch (Exception ex) {
+                call.reject("Failed to fetch groups.", null, ex);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getContactsInGroup(PluginCall call) {
+        if (!hasReadPermission()) {
+            call.reject("READ_CONTACTS permission not granted.");
+            return;
+        }
+
+        String groupId = call.getString("groupId");
+        if (groupId == null) {
+            call.reject("Missing group identifier.");
+            return;
+        }
+        Integer limit = call.getInt("limit", null);
+        Integer offset = call.getInt("offset", null);
+        Set<String> fields = parseFieldsArray(call);
+        boolean photoHandles = PHOTO_MODE_HANDLE.equals(call.getString("photoMode"));
+        String pageToken = call.getString("pageToken");
+        PageToken after = null;
+        if (pageToken != null) {
+            if (offset != null) {
+                call.reject("offset cannot be combined with pageToken.");
+                return;
+            }
+            try {
+                after = PageToken.decode(pageToken);
+            } catch (IllegalArgumentException ex) {
+                call.reject("Invalid pageToken.", null, ex);
+                return;
+            }
+        }
+        PageToken startAfter = after;
+
+        executeRead(call, () -> {
+            try {
+                Map<String, String> displayNames = queryGroupMembers(groupId, limit, offset, startAfter);
+                List<String> contactIds = new ArrayList<>(displayNames.keySet());
+                JSArray contacts = new JSArray();
+                for (int i = 0; i < contactIds.size(); i += BATCH_SIZE) {
+                    List<String> batchIds = contactIds.subList(i, Math.min(i + BATCH_SIZE, contactIds.size()));
+                    for (ContactBuilder builder : fetchContactBatch(batchIds, displayNames, fields, photoHandles)) {
+                        contacts.put(builder.toJSObject(fields));
+                    }
+                }
+                JSObject result = new JSObject();
+                // A short page is the last one
+                if (limit != null && limit > 0 && contactIds.size() == limit) {
+                    String lastId = contactIds.get(contactIds.size() - 1);
+                    result.put("nextPageToken", PageToken.at(displayNames.get(lastId), Long.parseLong(lastId)).encode());
+                }
+                result.put("contacts", contacts);
+                resolve(call, result);
+            } catch (Exception ex) {
+                call.reject("Failed to fetch group contacts.", null, ex);
+            }
+        });
     }
 
     @PluginMethod
@@ -359,30 +1064,33 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        ContentResolver resolver = getContext().getContentResolver();
+        executeRead(call, () -> {
+            ContentResolver resolver = getContext().getContentResolver();
 
-        try (
-            Cursor cursor = resolver.query(
-                ContactsContract.Groups.CONTENT_URI,
-                new String[] { ContactsContract.Groups._ID, ContactsContract.Groups.TITLE },
-                ContactsContract.Groups._ID + " = ?",
-                new String[] { groupId },
-                null
-            )
-        ) {
-            if (cursor != null && cursor.moveToFirst()) {
-                String id = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Groups._ID));
-                String name = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Groups.TITLE));
-                JSObject group = new JSObject();
-                group.put("id", id);
-                group.put("name", name);
-                call.resolve(new JSObject().put("group", group));
-            } else {
-                call.resolve(new JSObject().put("group", null));
+            try (
+                Cursor cursor = MeasuredCursor.query(
+                    resolver,
+                    ContactsContract.Groups.CONTENT_URI,
+                    new String[] { ContactsContract.Groups._ID, ContactsContract.Groups.TITLE },
+                    ContactsContract.Groups._ID + " = ?",
+                    new String[] { groupId },
+                    null
+                )
+            ) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    String id = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Groups._ID));
+                    String name = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Groups.TITLE));
+                    JSObject group = new JSObject();
+                    group.put("id", id);
+                    group.put("name", name);
+                    resolve(call, new JSObject().put("group", group));
+                } else {
+                    resolve(call, new JSObject().put("group", null));
+                }
+            } catch (Exception ex) {
+                call.reject("Failed to fetch group.", null, ex);
             }
-        } catch (Exception ex) {
-            call.reject("Failed to fetch group.", null, ex);
-        }
+        });
     }
 
     @PluginMethod
@@ -405,26 +1113,28 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        try {
-            ContentResolver resolver = getContext().getContentResolver();
-            ArrayList<android.content.ContentProviderOperation> ops = new ArrayList<>();
+        executeWrite(call, () -> {
+            try {
+                ContentResolver resolver = getContext().getContentResolver();
+                ArrayList<ContentProviderOperation> ops = new ArrayList<>();
 
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Groups.CONTENT_URI)
-                    .withValue(ContactsContract.Groups.TITLE, name)
-                    .build()
-            );
+                ops.add(
+                    ContentProviderOperation.newInsert(ContactsContract.Groups.CONTENT_URI)
+                        .withValue(ContactsContract.Groups.TITLE, name)
+                        .build()
+                );
 
-            android.content.ContentProviderResult[] results = resolver.applyBatch(ContactsContract.AUTHORITY, ops);
-            if (results.length > 0 && results[0].uri != null) {
-                String groupId = results[0].uri.getLastPathSegment();
-                call.resolve(new JSObject().put("id", groupId));
-            } else {
-                call.reject("Failed to create group.");
+                ContentProviderResult[] results = resolver.applyBatch(ContactsContract.AUTHORITY, ops);
+                if (results.length > 0 && results[0].uri != null) {
+                    String groupId = results[0].uri.getLastPathSegment();
+                    resolve(call, new JSObject().put("id", groupId));
+                } else {
+                    call.reject("Failed to create group.");
+                }
+            } catch (Exception ex) {
+                call.reject("Failed to create group.", null, ex);
             }
-        } catch (Exception ex) {
-            call.reject("Failed to create group.", null, ex);
-        }
+        });
     }
 
     @PluginMethod
@@ -441,22 +1151,24 @@ public class CapacitorContactsPlugin extends Plugin {
             return;
         }
 
-        try {
-            ContentResolver resolver = getContext().getContentResolver();
-            int rowsDeleted = resolver.delete(
-                ContactsContract.Groups.CONTENT_URI,
-                ContactsContract.Groups._ID + " = ?",
-                new String[] { groupId }
-            );
+        executeWrite(call, () -> {
+            try {
+                ContentResolver resolver = getContext().getContentResolver();
+                int rowsDeleted = resolver.delete(
+                    ContactsContract.Groups.CONTENT_URI,
+                    ContactsContract.Groups._ID + " = ?",
+                    new String[] { groupId }
+                );
 
-            if (rowsDeleted > 0) {
-                call.resolve();
-            } else {
-                call.reject("Group not found or could not be deleted.");
+                if (rowsDeleted > 0) {
+                    resolve(call);
+                } else {
+                    call.reject("Group not found or could not be deleted.");
+                }
+            } catch (Exception ex) {
+                call.reject("Failed to delete group.", null, ex);
             }
-        } catch (Exception ex) {
-            call.reject("Failed to delete group.", null, ex);
-        }
+        });
     }
 
     // MARK: - UI picker and display operations
@@ -592,7 +1304,9 @@ public class CapacitorContactsPlugin extends Plugin {
 
     private String getContactIdFromUri(Uri contactUri) {
         ContentResolver resolver = getContext().getContentResolver();
-        try (Cursor cursor = resolver.query(contactUri, new String[] { ContactsContract.Contacts._ID }, null, null, null)) {
+        try (
+            Cursor cursor = MeasuredCursor.query(resolver, contactUri, new String[] { ContactsContract.Contacts._ID }, null, null, null)
+        ) {
             if (cursor != null && cursor.moveToFirst()) {
                 return cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Contacts._ID));
             }
@@ -606,16 +1320,91 @@ public class CapacitorContactsPlugin extends Plugin {
 
     private String insertContact(JSObject contactData) throws Exception {
         ContentResolver resolver = getContext().getContentResolver();
-        ArrayList<android.content.ContentProviderOperation> ops = new ArrayList<>();
+        ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+        appendInsertOperations(ops, contactData);
+
+        // Execute batch
+        ContentProviderResult[] results = resolver.applyBatch(ContactsContract.AUTHORITY, ops);
 
+        // Get the contact ID from the first result
+        if (results.length > 0 && results[0].uri != null) {
+            String rawContactId = results[0].uri.getLastPathSegment();
+            String contactId = queryContactIdsForRawContacts(Collections.singletonList(rawContactId)).get(rawContactId);
+            if (contactId != null) {
+                return contactId;
+            }
+        }
+
+        throw new Exception("Failed to create contact");
+    }
+
+    /**
+     * Appends the operations inserting {@code contactData} as a new raw contact. Back-references are
+     * relative to the current end of {@code ops}, so several contacts can share one batch.
+     */
+    private void appendInsertOperations(ArrayList<ContentProviderOperation> ops, JSObject contactData) throws Exception {
         int rawContactInsertIndex = ops.size();
         ops.add(
-            android.content.ContentProviderOperation.newInsert(ContactsContract.RawContacts.CONTENT_URI)
+            ContentProviderOperation.newInsert(ContactsContract.RawContacts.CONTENT_URI)
                 .withValue(ContactsContract.RawContacts.ACCOUNT_TYPE, (String) null)
                 .withValue(ContactsContract.RawContacts.ACCOUNT_NAME, (String) null)
+                .withYieldAllowed(true)
                 .build()
         );
 
+        for (ContentValues values : buildDataRows(contactData)) {
+            ops.add(
+                ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
+                    .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
+                    .withValues(values)
+                    .build()
+            );
+        }
+    }
+
+    private void updateContact(String contactId, JSObject contactData) throws Exception {
+        ContentResolver resolver = getContext().getContentResolver();
+        ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+
+        // Find the raw contact ID for this contact
+        String rawContactId = queryRawContactIds(Collections.singletonList(contactId)).get(contactId);
+        if (rawContactId == null) {
+            throw new Exception("Contact not found");
+        }
+
+        List<ContactRowDiff.Row> existingRows = ContactRowDiff.queryRows(resolver, Collections.singletonList(rawContactId)).get(
+            rawContactId
+        );
+        appendUpdateOperations(ops, rawContactId, existingRows, contactData);
+
+        if (!ops.isEmpty()) {
+            resolver.applyBatch(ContactsContract.AUTHORITY, ops);
+        }
+    }
+
+    /**
+     * Appends only the operations needed to turn {@code existingRows} into the rows described by
+     * {@code contactData}; unchanged rows are not rewritten.
+     */
+    private void appendUpdateOperations(
+        ArrayList<ContentProviderOperation> ops,
+        String rawContactId,
+        List<ContactRowDiff.Row> existingRows,
+        JSObject contactData
+    ) throws Exception {
+        if (rawContactId == null) {
+            throw new Exception("Contact not found");
+        }
+
+        ContactRowDiff.appendOperations(ops, rawContactId, existingRows, buildDataRows(contactData));
+    }
+
+    /**
+     * Converts {@code contactData} into the Data rows it describes, each with its MIME type set.
+     */
+    private List<ContentValues> buildDataRows(JSObject contactData) {
+        List<ContentValues> rows = new ArrayList<>();
+
         // Add structured name
         if (
             contactData.has("givenName") ||
@@ -624,61 +1413,45 @@ public class CapacitorContactsPlugin extends Plugin {
             contactData.has("namePrefix") ||
             contactData.has("nameSuffix")
         ) {
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                    .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                    .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE)
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.GIVEN_NAME, contactData.getString("givenName"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.FAMILY_NAME, contactData.getString("familyName"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.MIDDLE_NAME, contactData.getString("middleName"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.PREFIX, contactData.getString("namePrefix"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.SUFFIX, contactData.getString("nameSuffix"))
-                    .build()
-            );
+            ContentValues values = new ContentValues();
+            values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE);
+            values.put(ContactsContract.CommonDataKinds.StructuredName.GIVEN_NAME, contactData.getString("givenName"));
+            values.put(ContactsContract.CommonDataKinds.StructuredName.FAMILY_NAME, contactData.getString("familyName"));
+            values.put(ContactsContract.CommonDataKinds.StructuredName.MIDDLE_NAME, contactData.getString("middleName"));
+            values.put(ContactsContract.CommonDataKinds.StructuredName.PREFIX, contactData.getString("namePrefix"));
+            values.put(ContactsContract.CommonDataKinds.StructuredName.SUFFIX, contactData.getString("nameSuffix"));
+            rows.add(values);
         }
 
         // Add organization
         if (contactData.has("organizationName") || contactData.has("jobTitle")) {
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                    .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                    .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE)
-                    .withValue(ContactsContract.CommonDataKinds.Organization.COMPANY, contactData.getString("organizationName"))
-                    .withValue(ContactsContract.CommonDataKinds.Organization.TITLE, contactData.getString("jobTitle"))
-                    .build()
-            );
+            ContentValues values = new ContentValues();
+            values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE);
+            values.put(ContactsContract.CommonDataKinds.Organization.COMPANY, contactData.getString("organizationName"));
+            values.put(ContactsContract.CommonDataKinds.Organization.TITLE, contactData.getString("jobTitle"));
+            rows.add(values);
         }
 
         // Add note
         if (contactData.has("note")) {
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                    .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                    .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE)
-                    .withValue(ContactsContract.CommonDataKinds.Note.NOTE, contactData.getString("note"))
-                    .build()
-            );
+            ContentValues values = new ContentValues();
+            values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE);
+            values.put(ContactsContract.CommonDataKinds.Note.NOTE, contactData.getString("note"));
+            rows.add(values);
         }
 
         // Add email addresses
         if (contactData.has("emailAddresses")) {
             try {
-                org.json.JSONArray emails = contactData.getJSONArray("emailAddresses");
+                JSONArray emails = contactData.getJSONArray("emailAddresses");
                 for (int i = 0; i < emails.length(); i++) {
-                    org.json.JSONObject email = emails.getJSONObject(i);
-                    String value = email.optString("value");
-                    String type = email.optString("type", "OTHER");
-                    String label = email.optString("label");
-
-                    ops.add(
-                        android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                            .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                            .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE)
-                            .withValue(ContactsContract.CommonDataKinds.Email.ADDRESS, value)
-                            .withValue(ContactsContract.CommonDataKinds.Email.TYPE, reverseMapEmailType(type))
-                            .withValue(ContactsContract.CommonDataKinds.Email.LABEL, label)
-                            .build()
-                    );
+                    JSONObject email = emails.getJSONObject(i);
+                    ContentValues values = new ContentValues();
+                    values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE);
+                    values.put(ContactsContract.CommonDataKinds.Email.ADDRESS, email.optString("value"));
+                    values.put(ContactsContract.CommonDataKinds.Email.TYPE, reverseMapEmailType(email.optString("type", "OTHER")));
+                    values.put(ContactsContract.CommonDataKinds.Email.LABEL, email.optString("label"));
+                    rows.add(values);
                 }
             } catch (Exception ex) {
                 // Ignore
@@ -688,22 +1461,15 @@ public class CapacitorContactsPlugin extends Plugin {
         // Add phone numbers
         if (contactData.has("phoneNumbers")) {
             try {
-                org.json.JSONArray phones = contactData.getJSONArray("phoneNumbers");
+                JSONArray phones = contactData.getJSONArray("phoneNumbers");
                 for (int i = 0; i < phones.length(); i++) {
-                    org.json.JSONObject phone = phones.getJSONObject(i);
-                    String value = phone.optString("value");
-                    String type = phone.optString("type", "OTHER");
-                    String label = phone.optString("label");
-
-                    ops.add(
-                        android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                            .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                            .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE)
-                            .withValue(ContactsContract.CommonDataKinds.Phone.NUMBER, value)
-                            .withValue(ContactsContract.CommonDataKinds.Phone.TYPE, reverseMapPhoneType(type))
-                            .withValue(ContactsContract.CommonDataKinds.Phone.LABEL, label)
-                            .build()
-                    );
+                    JSONObject phone = phones.getJSONObject(i);
+                    ContentValues values = new ContentValues();
+                    values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE);
+                    values.put(ContactsContract.CommonDataKinds.Phone.NUMBER, phone.optString("value"));
+                    values.put(ContactsContract.CommonDataKinds.Phone.TYPE, reverseMapPhoneType(phone.optString("type", "OTHER")));
+                    values.put(ContactsContract.CommonDataKinds.Phone.LABEL, phone.optString("label"));
+                    rows.add(values);
                 }
             } catch (Exception ex) {
                 // Ignore
@@ -713,26 +1479,22 @@ public class CapacitorContactsPlugin extends Plugin {
         // Add postal addresses
         if (contactData.has("postalAddresses")) {
             try {
-                org.json.JSONArray addresses = contactData.getJSONArray("postalAddresses");
+                JSONArray addresses = contactData.getJSONArray("postalAddresses");
                 for (int i = 0; i < addresses.length(); i++) {
-                    org.json.JSONObject address = addresses.getJSONObject(i);
-
-                    ops.add(
-                        android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                            .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                            .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE)
-                            .withValue(ContactsContract.CommonDataKinds.StructuredPostal.STREET, address.optString("street"))
-                            .withValue(ContactsContract.CommonDataKinds.StructuredPostal.CITY, address.optString("city"))
-                            .withValue(ContactsContract.CommonDataKinds.StructuredPostal.REGION, address.optString("state"))
-                            .withValue(ContactsContract.CommonDataKinds.StructuredPostal.POSTCODE, address.optString("postalCode"))
-                            .withValue(ContactsContract.CommonDataKinds.StructuredPostal.COUNTRY, address.optString("country"))
-                            .withValue(
-                                ContactsContract.CommonDataKinds.StructuredPostal.TYPE,
-                                reverseMapPostalType(address.optString("type", "OTHER"))
-                            )
-                            .withValue(ContactsContract.CommonDataKinds.StructuredPostal.LABEL, address.optString("label"))
-                            .build()
+                    JSONObject address = addresses.getJSONObject(i);
+                    ContentValues values = new ContentValues();
+                    values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE);
+                    values.put(ContactsContract.CommonDataKinds.StructuredPostal.STREET, address.optString("street"));
+                    values.put(ContactsContract.CommonDataKinds.StructuredPostal.CITY, address.optString("city"));
+                    values.put(ContactsContract.CommonDataKinds.StructuredPostal.REGION, address.optString("state"));
+                    values.put(ContactsContract.CommonDataKinds.StructuredPostal.POSTCODE, address.optString("postalCode"));
+                    values.put(ContactsContract.CommonDataKinds.StructuredPostal.COUNTRY, address.optString("country"));
+                    values.put(
+                        ContactsContract.CommonDataKinds.StructuredPostal.TYPE,
+                        reverseMapPostalType(address.optString("type", "OTHER"))
                     );
+                    values.put(ContactsContract.CommonDataKinds.StructuredPostal.LABEL, address.optString("label"));
+                    rows.add(values);
                 }
             } catch (Exception ex) {
                 // Ignore
@@ -742,172 +1504,115 @@ public class CapacitorContactsPlugin extends Plugin {
         // Add URL addresses
         if (contactData.has("urlAddresses")) {
             try {
-                org.json.JSONArray urls = contactData.getJSONArray("urlAddresses");
+                JSONArray urls = contactData.getJSONArray("urlAddresses");
                 for (int i = 0; i < urls.length(); i++) {
-                    org.json.JSONObject url = urls.getJSONObject(i);
-
-                    ops.add(
-                        android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                            .withValueBackReference(ContactsContract.Data.RAW_CONTACT_ID, rawContactInsertIndex)
-                            .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE)
-                            .withValue(ContactsContract.CommonDataKinds.Website.URL, url.optString("value"))
-                            .withValue(ContactsContract.CommonDataKinds.Website.TYPE, reverseMapUrlType(url.optString("type", "OTHER")))
-                            .withValue(ContactsContract.CommonDataKinds.Website.LABEL, url.optString("label"))
-                            .build()
-                    );
+                    JSONObject url = urls.getJSONObject(i);
+                    ContentValues values = new ContentValues();
+                    values.put(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE);
+                    values.put(ContactsContract.CommonDataKinds.Website.URL, url.optString("value"));
+                    values.put(ContactsContract.CommonDataKinds.Website.TYPE, reverseMapUrlType(url.optString("type", "OTHER")));
+                    values.put(ContactsContract.CommonDataKinds.Website.LABEL, url.optString("label"));
+                    rows.add(values);
                 }
             } catch (Exception ex) {
                 // Ignore
             }
         }
 
-        // Execute batch
-        android.content.ContentProviderResult[] results = resolver.applyBatch(ContactsContract.AUTHORITY, ops);
+        return rows;
+    }
+
+    /**
+     * Maps each contact to its first raw contact, the one single-contact updates write to.
+     */
+    private Map<String, String> queryRawContactIds(List<String> contactIds) {
+        return queryRawContactColumn(ContactsContract.RawContacts.CONTACT_ID, ContactsContract.RawContacts._ID, contactIds);
+    }
+
+    private Map<String, String> queryContactIdsForRawContacts(List<String> rawContactIds) {
+        return queryRawContactColumn(ContactsContract.RawContacts._ID, ContactsContract.RawContacts.CONTACT_ID, rawContactIds);
+    }
+
+    private Map<String, String> queryRawContactColumn(String keyColumn, String valueColumn, List<String> keys) {
+        ContentResolver resolver = getContext().getContentResolver();
+        Map<String, String> values = new HashMap<>();
+
+        for (int i = 0; i < keys.size(); i += BATCH_SIZE) {
+            List<String> batchKeys = keys.subList(i, Math.min(i + BATCH_SIZE, keys.size()));
+            StringBuilder selection = new StringBuilder(keyColumn + " IN (");
+            for (int j = 0; j < batchKeys.size(); j++) {
+                if (j > 0) selection.append(",");
+                selection.append("?");
+            }
+            selection.append(")");
 
-        // Get the contact ID from the first result
-        if (results.length > 0 && results[0].uri != null) {
-            String rawContactId = results[0].uri.getLastPathSegment();
-            // Query for the actual contact ID
             try (
-                Cursor cursor = resolver.query(
+                Cursor cursor = MeasuredCursor.query(
+                    resolver,
                     ContactsContract.RawContacts.CONTENT_URI,
-                    new String[] { ContactsContract.RawContacts.CONTACT_ID },
-                    ContactsContract.RawContacts._ID + " = ?",
-                    new String[] { rawContactId },
-                    null
+                    new String[] { keyColumn, valueColumn },
+                    selection.toString(),
+                    batchKeys.toArray(new String[0]),
+                    ContactsContract.RawContacts._ID + " ASC"
                 )
             ) {
-                if (cursor != null && cursor.moveToFirst()) {
-                    return cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.RawContacts.CONTACT_ID));
+                if (cursor != null) {
+                    int keyIndex = cursor.getColumnIndexOrThrow(keyColumn);
+                    int valueIndex = cursor.getColumnIndexOrThrow(valueColumn);
+                    while (cursor.moveToNext()) {
+                        String key = cursor.getString(keyIndex);
+                        if (!values.containsKey(key)) {
+                            values.put(key, cursor.getString(valueIndex));
+                        }
+                    }
                 }
             }
         }
 
-        throw new Exception("Failed to create contact");
+        return values;
     }
 
-    @SuppressLint("Range")
-    private void updateContact(String contactId, JSObject contactData) throws Exception {
-        ContentResolver resolver = getContext().getContentResolver();
-        ArrayList<android.content.ContentProviderOperation> ops = new ArrayList<>();
-
-        // Find the raw contact ID for this contact
-        String rawContactId = null;
-        try (
-            Cursor cursor = resolver.query(
-                ContactsContract.RawContacts.CONTENT_URI,
-                new String[] { ContactsContract.RawContacts._ID },
-                ContactsContract.RawContacts.CONTACT_ID + " = ?",
-                new String[] { contactId },
-                null
-            )
-        ) {
-            if (cursor != null && cursor.moveToFirst()) {
-                rawContactId = cursor.getString(cursor.getColumnIndex(ContactsContract.RawContacts._ID));
-            }
-        }
-
-        if (rawContactId == null) {
-            throw new Exception("Contact not found");
-        }
+    // MARK: - Bulk write helpers
 
-        // Delete existing data
-        ops.add(
-            android.content.ContentProviderOperation.newDelete(ContactsContract.Data.CONTENT_URI)
-                .withSelection(ContactsContract.Data.RAW_CONTACT_ID + " = ?", new String[] { rawContactId })
-                .build()
-        );
-
-        // Re-insert all data (simpler than updating individual fields)
-        int rawContactIdValue = Integer.parseInt(rawContactId);
-
-        // Add structured name
-        if (
-            contactData.has("givenName") ||
-            contactData.has("familyName") ||
-            contactData.has("middleName") ||
-            contactData.has("namePrefix") ||
-            contactData.has("nameSuffix")
-        ) {
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                    .withValue(ContactsContract.Data.RAW_CONTACT_ID, rawContactIdValue)
-                    .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE)
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.GIVEN_NAME, contactData.getString("givenName"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.FAMILY_NAME, contactData.getString("familyName"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.MIDDLE_NAME, contactData.getString("middleName"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.PREFIX, contactData.getString("namePrefix"))
-                    .withValue(ContactsContract.CommonDataKinds.StructuredName.SUFFIX, contactData.getString("nameSuffix"))
-                    .build()
-            );
-        }
-
-        // Similar logic for other fields (organization, note, emails, phones, etc.)
-        // Add organization
-        if (contactData.has("organizationName") || contactData.has("jobTitle")) {
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                    .withValue(ContactsContract.Data.RAW_CONTACT_ID, rawContactIdValue)
-                    .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE)
-                    .withValue(ContactsContract.CommonDataKinds.Organization.COMPANY, contactData.getString("organizationName"))
-                    .withValue(ContactsContract.CommonDataKinds.Organization.TITLE, contactData.getString("jobTitle"))
-                    .build()
-            );
-        }
+    /**
+     * Applies the operations of many items against the contacts provider, in chunks.
+     *
+     * @return the result of each item's first operation, or {@code null} where {@code errors} is set or
+     *     the item had nothing to write
+     * @see ChunkedBatch
+     */
+    private <T> ContentProviderResult[] applyInChunks(List<T> items, ChunkedBatch.OperationBuilder<T> builder, String[] errors) {
+        ContentResolver resolver = getContext().getContentResolver();
+        ContentProviderResult[] firstResults = new ContentProviderResult[items.size()];
+        ChunkedBatch.apply(items, builder, (ops) -> resolver.applyBatch(ContactsContract.AUTHORITY, ops), firstResults, errors);
+        return firstResults;
+    }
 
-        // Add note
-        if (contactData.has("note")) {
-            ops.add(
-                android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                    .withValue(ContactsContract.Data.RAW_CONTACT_ID, rawContactIdValue)
-                    .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE)
-                    .withValue(ContactsContract.CommonDataKinds.Note.NOTE, contactData.getString("note"))
-                    .build()
-            );
+    /**
+     * @throws IllegalArgumentException if {@code contactId} is missing or not a contact id
+     */
+    private static long parseContactId(String contactId) {
+        try {
+            return Long.parseLong(contactId);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid contact identifier.", ex);
         }
+    }
 
-        // Add emails, phones, addresses, URLs (same logic as insert)
-        if (contactData.has("emailAddresses")) {
-            try {
-                org.json.JSONArray emails = contactData.getJSONArray("emailAddresses");
-                for (int i = 0; i < emails.length(); i++) {
-                    org.json.JSONObject email = emails.getJSONObject(i);
-                    ops.add(
-                        android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                            .withValue(ContactsContract.Data.RAW_CONTACT_ID, rawContactIdValue)
-                            .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE)
-                            .withValue(ContactsContract.CommonDataKinds.Email.ADDRESS, email.optString("value"))
-                            .withValue(ContactsContract.CommonDataKinds.Email.TYPE, reverseMapEmailType(email.optString("type", "OTHER")))
-                            .withValue(ContactsContract.CommonDataKinds.Email.LABEL, email.optString("label"))
-                            .build()
-                    );
-                }
-            } catch (Exception ex) {
-                // Ignore
+    private JSArray buildBulkResults(String[] ids, String[] errors) {
+        JSArray results = new JSArray();
+        for (int i = 0; i < ids.length; i++) {
+            JSObject result = new JSObject();
+            result.put("success", errors[i] == null);
+            if (ids[i] != null) {
+                result.put("id", ids[i]);
             }
-        }
-
-        if (contactData.has("phoneNumbers")) {
-            try {
-                org.json.JSONArray phones = contactData.getJSONArray("phoneNumbers");
-                for (int i = 0; i < phones.length(); i++) {
-                    org.json.JSONObject phone = phones.getJSONObject(i);
-                    ops.add(
-                        android.content.ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
-                            .withValue(ContactsContract.Data.RAW_CONTACT_ID, rawContactIdValue)
-                            .withValue(ContactsContract.Data.MIMETYPE, ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE)
-                            .withValue(ContactsContract.CommonDataKinds.Phone.NUMBER, phone.optString("value"))
-                            .withValue(ContactsContract.CommonDataKinds.Phone.TYPE, reverseMapPhoneType(phone.optString("type", "OTHER")))
-                            .withValue(ContactsContract.CommonDataKinds.Phone.LABEL, phone.optString("label"))
-                            .build()
-                    );
-                }
-            } catch (Exception ex) {
-                // Ignore
+            if (errors[i] != null) {
+                result.put("error", errors[i]);
             }
+            results.put(result);
         }
-
-        resolver.applyBatch(ContactsContract.AUTHORITY, ops);
+        return results;
     }
 
     private void populateIntent(Intent intent, JSObject contactData) {
@@ -939,9 +1644,9 @@ public class CapacitorContactsPlugin extends Plugin {
         // Add first email if available
         if (contactData.has("emailAddresses")) {
             try {
-                org.json.JSONArray emails = contactData.getJSONArray("emailAddresses");
+                JSONArray emails = contactData.getJSONArray("emailAddresses");
                 if (emails.length() > 0) {
-                    org.json.JSONObject email = emails.getJSONObject(0);
+                    JSONObject email = emails.getJSONObject(0);
                     intent.putExtra(ContactsContract.Intents.Insert.EMAIL, email.optString("value"));
                 }
             } catch (Exception ex) {
@@ -952,9 +1657,9 @@ public class CapacitorContactsPlugin extends Plugin {
         // Add first phone if available
         if (contactData.has("phoneNumbers")) {
             try {
-                org.json.JSONArray phones = contactData.getJSONArray("phoneNumbers");
+                JSONArray phones = contactData.getJSONArray("phoneNumbers");
                 if (phones.length() > 0) {
-                    org.json.JSONObject phone = phones.getJSONObject(0);
+                    JSONObject phone = phones.getJSONObject(0);
                     intent.putExtra(ContactsContract.Intents.Insert.PHONE, phone.optString("value"));
                 }
             } catch (Exception ex) {
@@ -1009,79 +1714,611 @@ public class CapacitorContactsPlugin extends Plugin {
             default:
                 return ContactsContract.CommonDataKinds.Phone.TYPE_OTHER;
         }
-    }
+    }
+
+    private int reverseMapPostalType(String type) {
+        switch (type) {
+            case "HOME":
+                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_HOME;
+            case "WORK":
+                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_WORK;
+            case "CUSTOM":
+                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_CUSTOM;
+            default:
+                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_OTHER;
+        }
+    }
+
+    private int reverseMapUrlType(String type) {
+        switch (type) {
+            case "HOME":
+                return ContactsContract.CommonDataKinds.Website.TYPE_HOME;
+            case "WORK":
+                return ContactsContract.CommonDataKinds.Website.TYPE_WORK;
+            case "BLOG":
+                return ContactsContract.CommonDataKinds.Website.TYPE_BLOG;
+            case "PROFILE":
+                return ContactsContract.CommonDataKinds.Website.TYPE_PROFILE;
+            case "FTP":
+                return ContactsContract.CommonDataKinds.Website.TYPE_FTP;
+            case "CUSTOM":
+                return ContactsContract.CommonDataKinds.Website.TYPE_CUSTOM;
+            default:
+                return ContactsContract.CommonDataKinds.Website.TYPE_OTHER;
+        }
+    }
+
+    // MARK: - Executor helpers
+
+    private void executeRead(PluginCall call, Runnable task) {
+        execute(call, task, false);
+    }
+
+    private void executeWrite(PluginCall call, Runnable task) {
+        execute(call, task, true);
+    }
+
+    /**
+     * Runs {@code read} on the read lane unless an identical read keyed by {@code key} is already in
+     * flight, in which case {@code callback} receives that read's result instead. Callers sharing a
+     * key must be able to answer from the same value, so the key has to cover every option that
+     * changes what is read.
+     *
+     * @return {@code false} if the read lane refused the read, in which case {@code call} was rejected
+     */
+    private <T> boolean executeShared(PluginCall call, String key, Callable<T> read, SingleFlight.Callback<T> callback) {
+        if (!singleFlight.join(key, callback)) {
+            return true;
+        }
+        boolean accepted = execute(
+            call,
+            () -> {
+                T value;
+                try {
+                    value = read.call();
+                } catch (Exception ex) {
+                    singleFlight.complete(key, null, ex);
+                    callback.onComplete(null, ex);
+                    return;
+                }
+                singleFlight.complete(key, value, null);
+                callback.onComplete(value, null);
+            },
+            false
+        );
+        if (!accepted) {
+            singleFlight.complete(key, null, new RejectedExecutionException("Too many pending contacts operations."));
+        }
+        return accepted;
+    }
+
+    private boolean execute(PluginCall call, Runnable task, boolean write) {
+        long queuedAt = System.nanoTime();
+        Runnable guarded = () -> {
+            CallMetrics metrics = performanceMetrics != null ? CallMetrics.begin(call.getMethodName(), queuedAt) : null;
+            try {
+                task.run();
+            } catch (Exception ex) {
+                call.reject("Unexpected contacts error.", null, ex);
+            } finally {
+                if (metrics != null) {
+                    recordMetrics(metrics);
+                }
+            }
+        };
+        boolean accepted = write ? executor.write(guarded) : executor.read(guarded);
+        if (!accepted) {
+            call.reject("Too many pending contacts operations.");
+        }
+        return accepted;
+    }
+
+    /**
+     * Resolves {@code call} without a result, through the same path as {@link #resolve(PluginCall, JSObject)}.
+     */
+    private void resolve(PluginCall call) {
+        resolve(call, new JSObject());
+    }
+
+    /**
+     * Resolves {@code call} with {@code result}, counting it toward the payload of the call being measured.
+     */
+    private void resolve(PluginCall call, JSObject result) {
+        CallMetrics metrics = CallMetrics.current();
+        if (metrics != null) {
+            metrics.addPayload(result);
+        }
+        call.resolve(result);
+    }
+
+    private void recordMetrics(CallMetrics metrics) {
+        metrics.end();
+        performanceMetrics.record(metrics);
+        if (hasListeners(EVENT_PERFORMANCE_METRICS)) {
+            notifyListeners(EVENT_PERFORMANCE_METRICS, metrics.toJSObject());
+        }
+    }
+
+    // MARK: - Cache helpers
+
+    /**
+     * Registers the observer that invalidates the caches, unless it is already registered. The
+     * contacts provider refuses observers without READ_CONTACTS, so until it is granted nothing is
+     * registered and nothing may be cached: no change would ever drop the entry.
+     *
+     * @return whether the observer is registered
+     */
+    private synchronized boolean observeContacts() {
+        if (contactsObserver != null) {
+            return true;
+        }
+        if (!hasReadPermission()) {
+            return false;
+        }
+        ContentObserver observer = new ContentObserver(null) {
+            @Override
+            public void onChange(boolean selfChange, Uri uri) {
+                invalidateCache(uri);
+            }
+        };
+        try {
+            getContext().getContentResolver().registerContentObserver(ContactsContract.Contacts.CONTENT_URI, true, observer);
+        } catch (SecurityException ex) {
+            return false;
+        }
+        contactsObserver = observer;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getCached(String key) {
+        return contactCache != null && observeContacts() ? (T) contactCache.get(key) : null;
+    }
+
+    /**
+     * Generation to pass to {@link #putCached}, taken before the read whose result is cached.
+     */
+    private long cacheGeneration() {
+        return contactCache != null && observeContacts() ? contactCache.generation() : UNOBSERVED_GENERATION;
+    }
+
+    private void putCached(String key, Object value, int weight, long readGeneration) {
+        if (contactCache != null && readGeneration != UNOBSERVED_GENERATION) {
+            contactCache.put(key, value, weight, readGeneration);
+        }
+    }
+
+    private void invalidateCachedContact(String contactId) {
+        phoneLookupCache.clear();
+        accountCatalog.invalidate();
+        if (contactCache != null) {
+            contactCache.invalidateContact(contactId);
+        }
+    }
+
+    private void invalidateCache(Uri uri) {
+        phoneLookupCache.clear();
+        accountCatalog.invalidate();
+        if (contactCache == null) {
+            return;
+        }
+        // Item notifications end with the contact id; anything broader may touch any contact
+        String lastSegment = uri != null ? uri.getLastPathSegment() : null;
+        if (lastSegment != null && lastSegment.matches("\\d+")) {
+            contactCache.invalidateContact(lastSegment);
+        } else {
+            contactCache.clear();
+        }
+    }
+
+    // MARK: - Permissions helpers
+
+    private boolean hasReadPermission() {
+        return getPermissionState("readContacts") == PermissionState.GRANTED;
+    }
+
+    private boolean hasWritePermission() {
+        return getPermissionState("writeContacts") == PermissionState.GRANTED;
+    }
+
+    private JSObject buildPermissionStatus() {
+        JSObject status = new JSObject();
+        status.put("readContacts", mapPermissionState(getPermissionState("readContacts")));
+        status.put("writeContacts", mapPermissionState(getPermissionState("writeContacts")));
+        return status;
+    }
+
+    private String mapPermissionState(PermissionState state) {
+        if (state == null) {
+            return "prompt";
+        }
+        switch (state) {
+            case GRANTED:
+                return "granted";
+            case DENIED:
+                return "denied";
+            case PROMPT_WITH_RATIONALE:
+                return "prompt-with-rationale";
+            default:
+                return "prompt";
+        }
+    }
+
+    // MARK: - Contact access helpers
+
+    private List<ContactBuilder> fetchContacts(
+        Integer limit,
+        Integer offset,
+        PageToken after,
+        Set<String> fields,
+        boolean photoHandles,
+        boolean parallel
+    ) throws Exception {
+        if (parallel) {
+            return hydrateContactsParallel(queryDisplayNames(limit, offset, after), fields, photoHandles);
+        }
+        if (limit == null) {
+            List<ContactBuilder> builders = new ArrayList<>();
+            fetchJoinedContacts(offset, after, fields, photoHandles, builders::add);
+            return builders;
+        }
+
+        return hydrateContacts(queryDisplayNames(limit, offset, after), fields, photoHandles);
+    }
+
+    /**
+     * Builds the contacts of {@code displayNames} in {@code BATCH_SIZE} slices, keeping their order.
+     */
+    private List<ContactBuilder> hydrateContacts(Map<String, String> displayNames, Set<String> fields, boolean photoHandles) {
+        List<ContactBuilder> builders = new ArrayList<>(displayNames.size());
+        List<String> allIds = new ArrayList<>(displayNames.keySet());
+
+        for (int i = 0; i < allIds.size(); i += BATCH_SIZE) {
+            CallCancellation.throwIfCanceled();
+            List<String> batchIds = allIds.subList(i, Math.min(i + BATCH_SIZE, allIds.size()));
+            builders.addAll(fetchContactBatch(batchIds, displayNames, fields, photoHandles));
+        }
+
+        return builders;
+    }
+
+    /**
+     * Same result as {@link #hydrateContacts}, but the data and account queries of every batch run as
+     * separate tasks on the fetch pool. Builders are created up front in display-name order, so the
+     * merge is just reading them back once every task has finished.
+     */
+    private List<ContactBuilder> hydrateContactsParallel(Map<String, String> displayNames, Set<String> fields, boolean photoHandles)
+        throws Exception {
+        Map<String, ContactBuilder> builderMap = new java.util.LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : displayNames.entrySet()) {
+            ContactBuilder builder = new ContactBuilder(entry.getKey());
+            builder.fullName = entry.getValue();
+            builderMap.put(entry.getKey(), builder);
+        }
+
+        boolean includeAccount = fields == null || fields.contains("account");
+        List<String> allIds = new ArrayList<>(displayNames.keySet());
+        List<Callable<Void>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < allIds.size(); i += BATCH_SIZE) {
+            List<String> batchIds = allIds.subList(i, Math.min(i + BATCH_SIZE, allIds.size()));
+            // Each task only touches the builders of its own batch; data and account tasks write disjoint fields
+            tasks.add(() -> {
+                fillContactData(builderMap, batchIds, fields, photoHandles);
+                return null;
+            });
+            if (includeAccount) {
+                tasks.add(() -> {
+                    fillAccountInfo(builderMap, batchIds);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            executor.invokeAll(CallCancellation.propagate(CallMetrics.propagate(tasks)));
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            throw cause instanceof Exception ? (Exception) cause : ex;
+        }
+
+        return new ArrayList<>(builderMap.values());
+    }
+
+    /**
+     * Serves a page of the persistent snapshot. The first call builds it from the provider; later
+     * calls answer from disk and reconcile in the background, emitting {@code snapshotUpdated} when
+     * the provider had changes.
+     */
+    private JSObject readSnapshot(Integer limit, Integer offset, PageToken after, Set<String> fields) throws Exception {
+        if (snapshot.getSyncToken() == ContactSnapshot.NO_SYNC_TOKEN) {
+            reconcileSnapshot();
+        } else if (snapshotReconcileScheduled.compareAndSet(false, true)) {
+            boolean accepted = executor.read(() -> {
+                snapshotReconcileScheduled.set(false);
+                try {
+                    int[] changes = reconcileSnapshot();
+                    if (changes[0] > 0 || changes[1] > 0) {
+                        JSObject event = new JSObject();
+                        event.put("updated", changes[0]);
+                        event.put("deleted", changes[1]);
+                        notifyListeners(EVENT_SNAPSHOT_UPDATED, event);
+                    }
+                } catch (Exception ex) {
+                    android.util.Log.w("CapacitorContacts", "Failed to reconcile contacts snapshot", ex);
+                }
+            });
+            if (!accepted) {
+                snapshotReconcileScheduled.set(false);
+            }
+        }
+
+        return snapshot.read(limit, offset, after, fields);
+    }
+
+    /**
+     * Brings the snapshot up to date. Only contacts updated or deleted since the last reconcile are
+     * read, unless the snapshot was never built or is older than the provider keeps deletions for.
+     *
+     * @return the number of contacts stored and removed
+     */
+    private int[] reconcileSnapshot() {
+        synchronized (snapshot) {
+            long since = snapshot.getSyncToken();
+            // Taken before querying so edits made meanwhile are picked up by the next reconcile
+            long syncToken = System.currentTimeMillis();
+            boolean rebuild =
+                since == ContactSnapshot.NO_SYNC_TOKEN || syncToken - since >= ContactsContract.DeletedContacts.DAYS_KEPT_MILLISECONDS;
+
+            List<JSObject> upserts = new ArrayList<>();
+            List<String> deletedIds;
+            if (rebuild) {
+                fetchJoinedContacts(null, null, null, true, (builder) -> upserts.add(builder.toJSObject()));
+                deletedIds = new ArrayList<>();
+            } else {
+                Map<String, String> displayNames = queryDisplayNames(
+                    ContactsContract.Contacts.CONTENT_URI,
+                    ContactsContract.Contacts.CONTACT_LAST_UPDATED_TIMESTAMP + " > ?",
+                    new String[] { String.valueOf(since) }
+                );
+                for (ContactBuilder builder : hydrateContacts(displayNames, null, true)) {
+                    upserts.add(builder.toJSObject());
+                }
+                deletedIds = queryDeletedContactIds(since);
+            }
+
+            snapshot.apply(upserts, deletedIds, syncToken, rebuild);
+            return new int[] { upserts.size(), deletedIds.size() };
+        }
+    }
+
+    private List<String> queryDeletedContactIds(long since) {
+        ContentResolver resolver = getContext().getContentResolver();
+        List<String> deletedIds = new ArrayList<>();
+
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.DeletedContacts.CONTENT_URI,
+                new String[] { ContactsContract.DeletedContacts.CONTACT_ID },
+                ContactsContract.DeletedContacts.CONTACT_DELETED_TIMESTAMP + " > ?",
+                new String[] { String.valueOf(since) },
+                null
+            )
+        ) {
+            if (cursor != null) {
+                int contactIdIndex = cursor.getColumnIndexOrThrow(ContactsContract.DeletedContacts.CONTACT_ID);
+                while (cursor.moveToNext()) {
+                    deletedIds.add(cursor.getString(contactIdIndex));
+                }
+            }
+        }
+
+        return deletedIds;
+    }
+
+    private int streamContactPages(Integer limit, Integer offset, Set<String> fields, boolean photoHandles) {
+        int startOffset = offset != null ? offset : 0;
+
+        if (limit == null) {
+            List<ContactBuilder> page = new ArrayList<>(BATCH_SIZE);
+            int[] pageOffset = { startOffset };
+            fetchJoinedContacts(offset, null, fields, photoHandles, (builder) -> {
+                page.add(builder);
+                if (page.size() >= BATCH_SIZE) {
+                    emitContactsPage(page, pageOffset[0], fields);
+                    pageOffset[0] += page.size();
+                    page.clear();
+                }
+            });
+            if (!page.isEmpty()) {
+                emitContactsPage(page, pageOffset[0], fields);
+                pageOffset[0] += page.size();
+            }
+            return pageOffset[0] - startOffset;
+        }
 
-    private int reverseMapPostalType(String type) {
-        switch (type) {
-            case "HOME":
-                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_HOME;
-            case "WORK":
-                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_WORK;
-            case "CUSTOM":
-                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_CUSTOM;
-            default:
-                return ContactsContract.CommonDataKinds.StructuredPostal.TYPE_OTHER;
+        Map<String, String> displayNames = queryDisplayNames(limit, offset, null);
+        List<String> allIds = new ArrayList<>(displayNames.keySet());
+
+        for (int i = 0; i < allIds.size(); i += BATCH_SIZE) {
+            List<String> batchIds = allIds.subList(i, Math.min(i + BATCH_SIZE, allIds.size()));
+            emitContactsPage(fetchContactBatch(batchIds, displayNames, fields, photoHandles), startOffset + i, fields);
         }
+
+        return allIds.size();
     }
 
-    private int reverseMapUrlType(String type) {
-        switch (type) {
-            case "HOME":
-                return ContactsContract.CommonDataKinds.Website.TYPE_HOME;
-            case "WORK":
-                return ContactsContract.CommonDataKinds.Website.TYPE_WORK;
-            case "BLOG":
-                return ContactsContract.CommonDataKinds.Website.TYPE_BLOG;
-            case "PROFILE":
-                return ContactsContract.CommonDataKinds.Website.TYPE_PROFILE;
-            case "FTP":
-                return ContactsContract.CommonDataKinds.Website.TYPE_FTP;
-            case "CUSTOM":
-                return ContactsContract.CommonDataKinds.Website.TYPE_CUSTOM;
-            default:
-                return ContactsContract.CommonDataKinds.Website.TYPE_OTHER;
+    private void emitContactsPage(List<ContactBuilder> builders, int pageOffset, Set<String> fields) {
+        JSArray contacts = new JSArray();
+        for (ContactBuilder builder : builders) {
+            contacts.put(builder.toJSObject(fields));
+        }
+
+        JSObject page = new JSObject();
+        page.put("contacts", contacts);
+        page.put("offset", pageOffset);
+        CallMetrics metrics = CallMetrics.current();
+        if (metrics != null) {
+            metrics.addPayload(page);
         }
+        notifyListeners(EVENT_CONTACTS_PAGE, page);
     }
 
-    // MARK: - Permissions helpers
+    /**
+     * Reads every contact in a single pass over the Data table. Rows are sorted so that all rows
+     * of a contact are adjacent, which lets each builder be completed and handed to {@code sink}
+     * as soon as the next contact starts, in the same display-name order as the Contacts table.
+     * With {@code after}, only the contacts following that position are read.
+     */
+    private void fetchJoinedContacts(
+        Integer offset,
+        PageToken after,
+        Set<String> fields,
+        boolean photoHandles,
+        Consumer<ContactBuilder> sink
+    ) {
+        ContentResolver resolver = getContext().getContentResolver();
+        DataProjection projection = DataProjection.forFields(fields, true, photoHandles);
+        boolean includeAccount = fields == null || fields.contains("account");
+        int skip = offset != null ? offset : 0;
+        String selection = null;
+        List<String> selectionArgs = new ArrayList<>();
+        if (after != null) {
+            selection = after.selection(ContactsContract.Data.DISPLAY_NAME_PRIMARY, ContactsContract.Data.CONTACT_ID, selectionArgs);
+        }
 
-    private boolean hasReadPermission() {
-        return getPermissionState("readContacts") == PermissionState.GRANTED;
-    }
+        try (
+            Cursor dataCursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.Data.CONTENT_URI,
+                projection.columns,
+                selection,
+                selection != null ? selectionArgs.toArray(new String[0]) : null,
+                ContactsContract.Data.DISPLAY_NAME_PRIMARY +
+                    " ASC, " +
+                    ContactsContract.Data.CONTACT_ID +
+                    " ASC, " +
+                    ContactsContract.Data.RAW_CONTACT_ID +
+                    " ASC"
+            )
+        ) {
+            if (dataCursor == null) {
+                return;
+            }
 
-    private boolean hasWritePermission() {
-        return getPermissionState("writeContacts") == PermissionState.GRANTED;
+            ContactRowReader.readJoined(dataCursor, projection, includeAccount, skip, sink);
+        }
     }
 
-    private JSObject buildPermissionStatus() {
-        JSObject status = new JSObject();
-        status.put("readContacts", mapPermissionState(getPermissionState("readContacts")));
-        status.put("writeContacts", mapPermissionState(getPermissionState("writeContacts")));
-        return status;
+    /**
+     * Collects the contacts matching {@code query} by name, phone number or email address using the
+     * provider's filter URIs, so only matches are read. Name hits come first in the provider's
+     * ranking, followed by phone then email hits not already found.
+     */
+    private Map<String, String> queryMatchingDisplayNames(String query, Integer limit) {
+        Map<String, String> displayNames = new java.util.LinkedHashMap<>();
+        String encodedQuery = Uri.encode(query);
+
+        collectMatches(
+            displayNames,
+            Uri.withAppendedPath(ContactsContract.Contacts.CONTENT_FILTER_URI, encodedQuery),
+            ContactsContract.Contacts._ID,
+            ContactsContract.Contacts.DISPLAY_NAME_PRIMARY,
+            limit
+        );
+        // A query without digits cannot match a number, so skip the phone lookup
+        if (query.matches(".*\\d.*")) {
+            collectMatches(
+                displayNames,
+                Uri.withAppendedPath(ContactsContract.CommonDataKinds.Phone.CONTENT_FILTER_URI, encodedQuery),
+                ContactsContract.CommonDataKinds.Phone.CONTACT_ID,
+                ContactsContract.CommonDataKinds.Phone.DISPLAY_NAME_PRIMARY,
+                limit
+            );
+        }
+        collectMatches(
+            displayNames,
+            Uri.withAppendedPath(ContactsContract.CommonDataKinds.Email.CONTENT_FILTER_URI, encodedQuery),
+            ContactsContract.CommonDataKinds.Email.CONTACT_ID,
+            ContactsContract.CommonDataKinds.Email.DISPLAY_NAME_PRIMARY,
+            limit
+        );
+
+        return displayNames;
     }
 
-    private String mapPermissionState(PermissionState state) {
-        if (state == null) {
-            return "prompt";
+    private void collectMatches(Map<String, String> displayNames, Uri filterUri, String idColumn, String nameColumn, Integer limit) {
+        if (limit != null && displayNames.size() >= limit) {
+            return;
         }
-        switch (state) {
-            case GRANTED:
-                return "granted";
-            case DENIED:
-                return "denied";
-            case PROMPT_WITH_RATIONALE:
-                return "prompt-with-rationale";
-            default:
-                return "prompt";
+
+        ContentResolver resolver = getContext().getContentResolver();
+        Uri queryUri = filterUri;
+        if (limit != null) {
+            queryUri = filterUri.buildUpon().appendQueryParameter(ContactsContract.LIMIT_PARAM_KEY, String.valueOf(limit)).build();
+        }
+
+        try (Cursor cursor = MeasuredCursor.query(resolver, queryUri, new String[] { idColumn, nameColumn }, null, null, null)) {
+            if (cursor == null) {
+                return;
+            }
+            int idIndex = cursor.getColumnIndexOrThrow(idColumn);
+            int nameIndex = cursor.getColumnIndexOrThrow(nameColumn);
+            while (cursor.moveToNext() && (limit == null || displayNames.size() < limit)) {
+                String contactId = cursor.getString(idIndex);
+                if (!displayNames.containsKey(contactId)) {
+                    displayNames.put(contactId, cursor.getString(nameIndex));
+                }
+            }
         }
     }
 
-    // MARK: - Contact access helpers
+    /**
+     * Resolves {@code number} through the provider's indexed phone lookup, which matches numbers the
+     * way the dialer does regardless of formatting.
+     *
+     * @return {@code { id, displayName }} of the first matching contact, or {@code null}
+     */
+    private JSObject lookupPhoneNumber(String number) {
+        String normalizedNumber = number != null ? PhoneNumberUtils.normalizeNumber(number) : "";
+        if (normalizedNumber.isEmpty()) {
+            return null;
+        }
 
-    private List<ContactBuilder> fetchContacts(Integer limit, Integer offset, Set<String> fields) {
-        Map<String, ContactBuilder> builderMap = new java.util.LinkedHashMap<>();
+        // Without the observer a cached lookup would never be dropped on a change
+        boolean cacheable = observeContacts();
+        JSObject cached = cacheable ? phoneLookupCache.get(normalizedNumber) : null;
+        if (cached != null) {
+            return cached == PhoneLookupCache.NO_MATCH ? null : cached;
+        }
+
+        JSObject match = null;
         ContentResolver resolver = getContext().getContentResolver();
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                Uri.withAppendedPath(ContactsContract.PhoneLookup.CONTENT_FILTER_URI, Uri.encode(normalizedNumber)),
+                new String[] { ContactsContract.PhoneLookup.CONTACT_ID, ContactsContract.PhoneLookup.DISPLAY_NAME },
+                null,
+                null,
+                null
+            )
+        ) {
+            if (cursor != null && cursor.moveToFirst()) {
+                match = new JSObject();
+                match.put("id", cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.PhoneLookup.CONTACT_ID)));
+                match.put("displayName", cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.PhoneLookup.DISPLAY_NAME)));
+            }
+        }
+
+        if (cacheable) {
+            phoneLookupCache.put(normalizedNumber, match);
+        }
+        return match;
+    }
 
+    private Map<String, String> queryDisplayNames(Integer limit, Integer offset, PageToken after) {
         Uri queryUri = ContactsContract.Contacts.CONTENT_URI;
         if (limit != null) {
             android.net.Uri.Builder builder = ContactsContract.Contacts.CONTENT_URI.buildUpon();
@@ -1092,50 +2329,145 @@ public class CapacitorContactsPlugin extends Plugin {
             }
             queryUri = builder.build();
         }
+        if (after != null) {
+            List<String> selectionArgs = new ArrayList<>();
+            String selection = after.selection(
+                ContactsContract.Contacts.DISPLAY_NAME_PRIMARY,
+                ContactsContract.Contacts._ID,
+                selectionArgs
+            );
+            return queryDisplayNames(queryUri, selection, selectionArgs.toArray(new String[0]));
+        }
+
+        return queryDisplayNames(queryUri, null, null);
+    }
+
+    private Map<String, String> queryDisplayNames(Uri queryUri, String selection, String[] selectionArgs) {
+        Map<String, String> displayNames = new java.util.LinkedHashMap<>();
+        ContentResolver resolver = getContext().getContentResolver();
 
         try (
-            Cursor cursor = resolver.query(
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
                 queryUri,
                 new String[] { ContactsContract.Contacts._ID, ContactsContract.Contacts.DISPLAY_NAME_PRIMARY },
-                null,
-                null,
-                ContactsContract.Contacts.DISPLAY_NAME_PRIMARY + " ASC"
+                selection,
+                selectionArgs,
+                ContactsContract.Contacts.DISPLAY_NAME_PRIMARY + " ASC, " + ContactsContract.Contacts._ID + " ASC"
             )
         ) {
-            if (cursor == null) {
-                return new ArrayList<>();
-            }
-
-            while (cursor.moveToNext()) {
-                String id = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Contacts._ID));
-                String displayName = cursor.getString(cursor.getColumnIndexOrThrow(ContactsContract.Contacts.DISPLAY_NAME_PRIMARY));
-                ContactBuilder builder = new ContactBuilder(id);
-                builder.fullName = displayName;
-                builderMap.put(id, builder);
+            if (cursor != null) {
+                int idIndex = cursor.getColumnIndexOrThrow(ContactsContract.Contacts._ID);
+                int displayNameIndex = cursor.getColumnIndexOrThrow(ContactsContract.Contacts.DISPLAY_NAME_PRIMARY);
+                while (cursor.moveToNext()) {
+                    displayNames.put(cursor.getString(idIndex), cursor.getString(displayNameIndex));
+                }
             }
         }
 
-        if (!builderMap.isEmpty()) {
-            List<String> allIds = new ArrayList<>(builderMap.keySet());
+        return displayNames;
+    }
 
-            for (int i = 0; i < allIds.size(); i += BATCH_SIZE) {
-                List<String> batchIds = allIds.subList(i, Math.min(i + BATCH_SIZE, allIds.size()));
-                fillContactData(builderMap, batchIds, fields);
+    /**
+     * Returns the display names of one page of the members of {@code groupId}, keyed by contact id in
+     * display-name order. Only the membership rows of the group are read, and the page is bounded in
+     * the query, so a page costs its own size plus {@code offset}; pages reached through a
+     * {@code PageToken} seek straight to their start.
+     */
+    private Map<String, String> queryGroupMembers(String groupId, Integer limit, Integer offset, PageToken after) {
+        ContentResolver resolver = getContext().getContentResolver();
+        Map<String, String> displayNames = new java.util.LinkedHashMap<>();
+        boolean limited = limit != null && limit > 0;
+        int skip = offset != null ? Math.max(0, offset) : 0;
+        PageToken position = after;
+
+        while (true) {
+            List<String> selectionArgs = new ArrayList<>();
+            StringBuilder selection = new StringBuilder();
+            selection.append(ContactsContract.Data.MIMETYPE).append(" = ? AND ");
+            selection.append(ContactsContract.CommonDataKinds.GroupMembership.GROUP_ROW_ID).append(" = ?");
+            selectionArgs.add(ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE);
+            selectionArgs.add(groupId);
+            if (position != null) {
+                selection.append(" AND ");
+                selection.append(
+                    position.selection(ContactsContract.Data.DISPLAY_NAME_PRIMARY, ContactsContract.Data.CONTACT_ID, selectionArgs)
+                );
             }
+            int wanted = limited ? skip + limit - displayNames.size() : 0;
+            Uri uri = limited
+                ? ContactsContract.Data.CONTENT_URI.buildUpon()
+                    .appendQueryParameter(ContactsContract.LIMIT_PARAM_KEY, String.valueOf(wanted))
+                    .build()
+                : ContactsContract.Data.CONTENT_URI;
 
-            if (fields == null || fields.contains("account")) {
-                for (int i = 0; i < allIds.size(); i += BATCH_SIZE) {
-                    List<String> batchIds = allIds.subList(i, Math.min(i + BATCH_SIZE, allIds.size()));
-                    fillAccountInfo(builderMap, batchIds);
+            int rows = 0;
+            try (
+                Cursor cursor = MeasuredCursor.query(
+                    resolver,
+                    uri,
+                    new String[] { ContactsContract.Data.CONTACT_ID, ContactsContract.Data.DISPLAY_NAME_PRIMARY },
+                    selection.toString(),
+                    selectionArgs.toArray(new String[0]),
+                    ContactsContract.Data.DISPLAY_NAME_PRIMARY + " ASC, " + ContactsContract.Data.CONTACT_ID + " ASC"
+                )
+            ) {
+                if (cursor == null) {
+                    return displayNames;
+                }
+                while (cursor.moveToNext()) {
+                    rows++;
+                    String contactId = cursor.getString(0);
+                    String displayName = cursor.getString(1);
+                    boolean repeated = position != null && position.contactId == cursor.getLong(0);
+                    position = PageToken.at(displayName, cursor.getLong(0));
+                    // Each raw contact of an aggregate in the group has its own membership row; they are adjacent
+                    if (repeated || displayNames.containsKey(contactId)) {
+                        continue;
+                    }
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    displayNames.put(contactId, displayName);
                 }
             }
+            // Repeated rows made the page short; continue after the last contact seen
+            if (!limited || rows < wanted || displayNames.size() >= limit) {
+                return displayNames;
+            }
+        }
+    }
+
+    private List<ContactBuilder> fetchContactBatch(
+        List<String> batchIds,
+        Map<String, String> displayNames,
+        Set<String> fields,
+        boolean photoHandles
+    ) {
+        Map<String, ContactBuilder> builderMap = new java.util.LinkedHashMap<>();
+        for (String id : batchIds) {
+            ContactBuilder builder = new ContactBuilder(id);
+            builder.fullName = displayNames.get(id);
+            builderMap.put(id, builder);
+        }
+
+        fillContactData(builderMap, batchIds, fields, photoHandles);
+        if (fields == null || fields.contains("account")) {
+            fillAccountInfo(builderMap, batchIds);
         }
 
         return new ArrayList<>(builderMap.values());
     }
 
-    private void fillContactData(Map<String, ContactBuilder> builderMap, List<String> batchIds, Set<String> fields) {
+    private void fillContactData(
+        Map<String, ContactBuilder> builderMap,
+        List<String> batchIds,
+        Set<String> fields,
+        boolean photoHandles
+    ) {
         ContentResolver resolver = getContext().getContentResolver();
+        DataProjection projection = DataProjection.forFields(fields, false, photoHandles);
         List<String> selectionArgs = new ArrayList<>(batchIds);
         StringBuilder selection = new StringBuilder();
 
@@ -1145,44 +2477,64 @@ public class CapacitorContactsPlugin extends Plugin {
             selection.append("?");
         }
         selection.append(")");
-
-        if (fields != null) {
-            List<String> mimeTypes = getMimeTypesForFields(fields);
-
-            if (!mimeTypes.isEmpty()) {
-                StringBuilder mimeSelection = new StringBuilder();
-                mimeSelection.append(" AND " + ContactsContract.Data.MIMETYPE + " IN (");
-                for (int i = 0; i < mimeTypes.size(); i++) {
-                    if (i > 0) mimeSelection.append(",");
-                    mimeSelection.append("?");
-                    selectionArgs.add(mimeTypes.get(i));
-                }
-                mimeSelection.append(")");
-                selection.append(mimeSelection.toString());
-            }
-        }
+        projection.appendMimeTypeSelection(selection, selectionArgs);
 
         try (
-            Cursor dataCursor = resolver.query(
+            Cursor dataCursor = MeasuredCursor.query(
+                resolver,
                 ContactsContract.Data.CONTENT_URI,
-                null,
+                projection.columns,
                 selection.toString(),
                 selectionArgs.toArray(new String[0]),
                 null
             )
         ) {
             if (dataCursor != null) {
+                DataProjection.ColumnIndex columns = projection.resolve(dataCursor);
                 while (dataCursor.moveToNext()) {
-                    String contactId = dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.Data.CONTACT_ID));
+                    String contactId = dataCursor.getString(columns.contactId);
                     ContactBuilder builder = builderMap.get(contactId);
                     if (builder != null) {
-                        processDataRow(builder, dataCursor);
+                        ContactRowReader.readRow(builder, dataCursor, columns);
                     }
                 }
             }
         }
     }
 
+    /**
+     * Reads the contacts of {@code batchIds} in one Data query that also carries their display name
+     * and account, handing each one found to {@code sink}. Ids without a contact are skipped.
+     */
+    private void fetchContactsById(List<String> batchIds, Set<String> fields, Consumer<ContactBuilder> sink) {
+        ContentResolver resolver = getContext().getContentResolver();
+        DataProjection projection = DataProjection.forFields(fields, true, false);
+        boolean includeAccount = fields == null || fields.contains("account");
+        StringBuilder selection = new StringBuilder();
+
+        selection.append(ContactsContract.Data.CONTACT_ID + " IN (");
+        for (int i = 0; i < batchIds.size(); i++) {
+            if (i > 0) selection.append(",");
+            selection.append("?");
+        }
+        selection.append(")");
+
+        try (
+            Cursor dataCursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.Data.CONTENT_URI,
+                projection.columns,
+                selection.toString(),
+                batchIds.toArray(new String[0]),
+                ContactsContract.Data.CONTACT_ID + " ASC, " + ContactsContract.Data.RAW_CONTACT_ID + " ASC"
+            )
+        ) {
+            if (dataCursor != null) {
+                ContactRowReader.readJoined(dataCursor, projection, includeAccount, 0, sink);
+            }
+        }
+    }
+
     private void fillAccountInfo(Map<String, ContactBuilder> builderMap, List<String> batchIds) {
         ContentResolver resolver = getContext().getContentResolver();
         List<String> selectionArgs = new ArrayList<>(batchIds);
@@ -1196,7 +2548,8 @@ public class CapacitorContactsPlugin extends Plugin {
         selection.append(")");
 
         try (
-            Cursor rawCursor = resolver.query(
+            Cursor rawCursor = MeasuredCursor.query(
+                resolver,
                 ContactsContract.RawContacts.CONTENT_URI,
                 new String[] {
                     ContactsContract.RawContacts.CONTACT_ID,
@@ -1209,16 +2562,14 @@ public class CapacitorContactsPlugin extends Plugin {
             )
         ) {
             if (rawCursor != null) {
+                int contactIdIndex = rawCursor.getColumnIndexOrThrow(ContactsContract.RawContacts.CONTACT_ID);
+                int accountNameIndex = rawCursor.getColumnIndexOrThrow(ContactsContract.RawContacts.ACCOUNT_NAME);
+                int accountTypeIndex = rawCursor.getColumnIndexOrThrow(ContactsContract.RawContacts.ACCOUNT_TYPE);
                 while (rawCursor.moveToNext()) {
-                    String contactId = rawCursor.getString(rawCursor.getColumnIndexOrThrow(ContactsContract.RawContacts.CONTACT_ID));
-                    ContactBuilder builder = builderMap.get(contactId);
+                    ContactBuilder builder = builderMap.get(rawCursor.getString(contactIdIndex));
                     if (builder != null && builder.accountName == null) {
-                        builder.accountName = rawCursor.getString(
-                            rawCursor.getColumnIndexOrThrow(ContactsContract.RawContacts.ACCOUNT_NAME)
-                        );
-                        builder.accountType = rawCursor.getString(
-                            rawCursor.getColumnIndexOrThrow(ContactsContract.RawContacts.ACCOUNT_TYPE)
-                        );
+                        builder.accountName = rawCursor.getString(accountNameIndex);
+                        builder.accountType = rawCursor.getString(accountTypeIndex);
                     }
                 }
             }
@@ -1229,33 +2580,19 @@ public class CapacitorContactsPlugin extends Plugin {
         ContentResolver resolver = getContext().getContentResolver();
         ContactBuilder builder = new ContactBuilder(contactId);
 
-        // Build selection based on fields
-        String selection = ContactsContract.Data.CONTACT_ID + " = ?";
+        DataProjection projection = DataProjection.forFields(fields, false, false);
+        StringBuilder selection = new StringBuilder(ContactsContract.Data.CONTACT_ID + " = ?");
         List<String> selectionArgs = new ArrayList<>();
         selectionArgs.add(contactId);
-
-        if (fields != null) {
-            List<String> mimeTypes = getMimeTypesForFields(fields);
-
-            if (!mimeTypes.isEmpty()) {
-                StringBuilder mimeSelection = new StringBuilder();
-                mimeSelection.append(" AND " + ContactsContract.Data.MIMETYPE + " IN (");
-                for (int i = 0; i < mimeTypes.size(); i++) {
-                    if (i > 0) mimeSelection.append(",");
-                    mimeSelection.append("?");
-                    selectionArgs.add(mimeTypes.get(i));
-                }
-                mimeSelection.append(")");
-                selection += mimeSelection.toString();
-            }
-        }
+        projection.appendMimeTypeSelection(selection, selectionArgs);
 
         // Structured name, emails, phones, etc.
         try (
-            Cursor dataCursor = resolver.query(
+            Cursor dataCursor = MeasuredCursor.query(
+                resolver,
                 ContactsContract.Data.CONTENT_URI,
-                null,
-                selection,
+                projection.columns,
+                selection.toString(),
                 selectionArgs.toArray(new String[0]),
                 null
             )
@@ -1264,15 +2601,17 @@ public class CapacitorContactsPlugin extends Plugin {
                 return null;
             }
 
+            DataProjection.ColumnIndex columns = projection.resolve(dataCursor);
             while (dataCursor.moveToNext()) {
-                processDataRow(builder, dataCursor);
+                ContactRowReader.readRow(builder, dataCursor, columns);
             }
         }
 
         // Account information (only if fields allow)
         if (fields == null || fields.contains("account")) {
             try (
-                Cursor rawCursor = resolver.query(
+                Cursor rawCursor = MeasuredCursor.query(
+                    resolver,
                     ContactsContract.RawContacts.CONTENT_URI,
                     new String[] { ContactsContract.RawContacts.ACCOUNT_NAME, ContactsContract.RawContacts.ACCOUNT_TYPE },
                     ContactsContract.RawContacts.CONTACT_ID + " = ?",
@@ -1296,102 +2635,11 @@ public class CapacitorContactsPlugin extends Plugin {
         return builder;
     }
 
-    private void processDataRow(ContactBuilder builder, Cursor dataCursor) {
-        String mimeType = dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.Data.MIMETYPE));
-        switch (mimeType) {
-            case ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE:
-                builder.givenName = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredName.GIVEN_NAME)
-                );
-                builder.familyName = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredName.FAMILY_NAME)
-                );
-                builder.middleName = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredName.MIDDLE_NAME)
-                );
-                builder.namePrefix = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredName.PREFIX)
-                );
-                builder.nameSuffix = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredName.SUFFIX)
-                );
-                break;
-            case ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE:
-                builder.addEmail(
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Email.ADDRESS)),
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Email.TYPE)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Email.LABEL)),
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Email.IS_PRIMARY)) == 1
-                );
-                break;
-            case ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE:
-                builder.addPhone(
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Phone.NUMBER)),
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Phone.TYPE)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Phone.LABEL)),
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Phone.IS_PRIMARY)) == 1
-                );
-                break;
-            case ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE:
-                builder.addPostalAddress(
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.TYPE)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.LABEL)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.STREET)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.CITY)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.REGION)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.POSTCODE)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.COUNTRY)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.NEIGHBORHOOD)),
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.StructuredPostal.IS_PRIMARY)) == 1
-                );
-                break;
-            case ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE:
-                builder.addUrlAddress(
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Website.URL)),
-                    dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Website.TYPE)),
-                    dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Website.LABEL))
-                );
-                break;
-            case ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE:
-                builder.organizationName = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Organization.COMPANY)
-                );
-                builder.jobTitle = dataCursor.getString(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Organization.TITLE)
-                );
-                break;
-            case ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE:
-                builder.note = dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Note.NOTE));
-                break;
-            case ContactsContract.CommonDataKinds.Event.CONTENT_ITEM_TYPE:
-                int eventType = dataCursor.getInt(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Event.TYPE));
-                if (eventType == ContactsContract.CommonDataKinds.Event.TYPE_BIRTHDAY) {
-                    builder.setBirthday(
-                        dataCursor.getString(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Event.START_DATE))
-                    );
-                }
-                break;
-            case ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE:
-                long groupId = dataCursor.getLong(
-                    dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.GroupMembership.GROUP_ROW_ID)
-                );
-                builder.addGroupId(String.valueOf(groupId));
-                break;
-            case ContactsContract.CommonDataKinds.Photo.CONTENT_ITEM_TYPE:
-                byte[] photoData = dataCursor.getBlob(dataCursor.getColumnIndexOrThrow(ContactsContract.CommonDataKinds.Photo.PHOTO));
-                if (photoData != null) {
-                    builder.photoBase64 = Base64.encodeToString(photoData, Base64.NO_WRAP);
-                }
-                break;
-            default:
-                break;
-        }
-    }
-
     private String resolveDisplayName(String contactId) {
         ContentResolver resolver = getContext().getContentResolver();
         try (
-            Cursor cursor = resolver.query(
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
                 ContentUris.withAppendedId(ContactsContract.Contacts.CONTENT_URI, Long.parseLong(contactId)),
                 new String[] { ContactsContract.Contacts.DISPLAY_NAME_PRIMARY },
                 null,
@@ -1406,6 +2654,29 @@ public class CapacitorContactsPlugin extends Plugin {
         return null;
     }
 
+    private static byte[] readAllBytes(InputStream stream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads {@code array} entry by entry, with {@code null} for every entry that is not a string, so
+     * one bad entry can be reported on its own instead of failing the whole call.
+     */
+    private static List<String> readStringEntries(JSArray array) {
+        List<String> entries = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            Object entry = array.opt(i);
+            entries.add(entry instanceof String ? (String) entry : null);
+        }
+        return entries;
+    }
+
     private Set<String> parseFieldsArray(PluginCall call) {
         JSArray fieldsArray = call.getArray("fields", null);
         if (fieldsArray == null) {
@@ -1425,328 +2696,4 @@ public class CapacitorContactsPlugin extends Plugin {
         }
         return fields.isEmpty() ? null : fields;
     }
-
-    private List<String> getMimeTypesForFields(Set<String> fields) {
-        List<String> mimeTypes = new ArrayList<>();
-        // Always fetch structured name for basic display
-        mimeTypes.add(ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE);
-
-        if (fields == null) {
-            return mimeTypes;
-        }
-
-        if (fields.contains("organizationName") || fields.contains("jobTitle")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("emailAddresses")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("phoneNumbers")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("postalAddresses")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("urlAddresses")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("note")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("birthday")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Event.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("groupIds")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE);
-        }
-        if (fields.contains("photo")) {
-            mimeTypes.add(ContactsContract.CommonDataKinds.Photo.CONTENT_ITEM_TYPE);
-        }
-
-        return mimeTypes;
-    }
-
-    // MARK: - Contact builder helper
-
-    private static class ContactBuilder {
-
-        final String id;
-        String givenName;
-        String familyName;
-        String middleName;
-        String namePrefix;
-        String nameSuffix;
-        String organizationName;
-        String jobTitle;
-        String note;
-        String fullName;
-        String photoBase64;
-        String accountName;
-        String accountType;
-        Integer birthdayYear;
-        Integer birthdayMonth;
-        Integer birthdayDay;
-        final JSArray groupIds = new JSArray();
-        final JSArray emailAddresses = new JSArray();
-        final JSArray phoneNumbers = new JSArray();
-        final JSArray postalAddresses = new JSArray();
-        final JSArray urlAddresses = new JSArray();
-
-        ContactBuilder(String id) {
-            this.id = id;
-        }
-
-        void addEmail(String value, int type, String label, boolean isPrimary) {
-            if (value == null) {
-                return;
-            }
-            JSObject email = new JSObject();
-            email.put("value", value);
-            email.put("type", mapEmailType(type));
-            if (type == ContactsContract.CommonDataKinds.Email.TYPE_CUSTOM && label != null) {
-                email.put("label", label);
-            }
-            email.put("isPrimary", isPrimary);
-            emailAddresses.put(email);
-        }
-
-        void addPhone(String value, int type, String label, boolean isPrimary) {
-            if (value == null) {
-                return;
-            }
-            JSObject phone = new JSObject();
-            phone.put("value", value);
-            phone.put("type", mapPhoneType(type));
-            if (type == ContactsContract.CommonDataKinds.Phone.TYPE_CUSTOM && label != null) {
-                phone.put("label", label);
-            }
-            phone.put("isPrimary", isPrimary);
-            phoneNumbers.put(phone);
-        }
-
-        void addPostalAddress(
-            int type,
-            String label,
-            String street,
-            String city,
-            String state,
-            String postalCode,
-            String country,
-            String neighborhood,
-            boolean isPrimary
-        ) {
-            JSObject address = new JSObject();
-            address.put("street", street);
-            address.put("city", city);
-            address.put("state", state);
-            address.put("postalCode", postalCode);
-            address.put("country", country);
-            address.put("neighborhood", neighborhood);
-            address.put("formatted", buildFormattedAddress(street, city, state, postalCode, country));
-            address.put("isoCountryCode", null);
-            address.put("isPrimary", isPrimary);
-            address.put("type", mapPostalType(type));
-            if (type == ContactsContract.CommonDataKinds.StructuredPostal.TYPE_CUSTOM && label != null) {
-                address.put("label", label);
-            }
-            postalAddresses.put(address);
-        }
-
-        void addUrlAddress(String value, int type, String label) {
-            if (value == null) {
-                return;
-            }
-            JSObject url = new JSObject();
-            url.put("value", value);
-            url.put("type", mapUrlType(type));
-            if (type == ContactsContract.CommonDataKinds.Website.TYPE_CUSTOM && label != null) {
-                url.put("label", label);
-            }
-            urlAddresses.put(url);
-        }
-
-        void addGroupId(String groupId) {
-            if (groupId == null) {
-                return;
-            }
-            groupIds.put(groupId);
-        }
-
-        void setBirthday(String startDate) {
-            if (startDate == null || startDate.isEmpty()) {
-                return;
-            }
-            // Handle yearless dates: --MM-DD
-            if (startDate.startsWith("--")) {
-                String[] parts = startDate.substring(2).split("-");
-                if (parts.length >= 2) {
-                    birthdayMonth = safeParse(parts[0]);
-                    birthdayDay = safeParse(parts[1]);
-                }
-            } else {
-                // Standard format: YYYY-MM-DD
-                String[] parts = startDate.split("-");
-                if (parts.length >= 3) {
-                    birthdayYear = safeParse(parts[0]);
-                    birthdayMonth = safeParse(parts[1]);
-                    birthdayDay = safeParse(parts[2]);
-                }
-            }
-        }
-
-        JSObject toJSObject() {
-            return toJSObject(null);
-        }
-
-        JSObject toJSObject(Set<String> fields) {
-            boolean includeAll = fields == null;
-            JSObject contact = new JSObject();
-
-            if (includeAll || fields.contains("id")) contact.put("id", id);
-            if (includeAll || fields.contains("givenName")) contact.put("givenName", givenName);
-            if (includeAll || fields.contains("familyName")) contact.put("familyName", familyName);
-            if (includeAll || fields.contains("middleName")) contact.put("middleName", middleName);
-            if (includeAll || fields.contains("namePrefix")) contact.put("namePrefix", namePrefix);
-            if (includeAll || fields.contains("nameSuffix")) contact.put("nameSuffix", nameSuffix);
-            if (includeAll || fields.contains("organizationName")) contact.put("organizationName", organizationName);
-            if (includeAll || fields.contains("jobTitle")) contact.put("jobTitle", jobTitle);
-            if (includeAll || fields.contains("note")) contact.put("note", note);
-            if (includeAll || fields.contains("fullName")) contact.put("fullName", fullName);
-            if (includeAll || fields.contains("photo")) contact.put("photo", photoBase64);
-            if (includeAll || fields.contains("groupIds")) contact.put("groupIds", groupIds);
-            if (includeAll || fields.contains("emailAddresses")) contact.put("emailAddresses", emailAddresses);
-            if (includeAll || fields.contains("phoneNumbers")) contact.put("phoneNumbers", phoneNumbers);
-            if (includeAll || fields.contains("postalAddresses")) contact.put("postalAddresses", postalAddresses);
-            if (includeAll || fields.contains("urlAddresses")) contact.put("urlAddresses", urlAddresses);
-
-            if ((includeAll || fields.contains("birthday")) && (birthdayYear != null || birthdayMonth != null || birthdayDay != null)) {
-                JSObject birthday = new JSObject();
-                if (birthdayDay != null) birthday.put("day", birthdayDay);
-                if (birthdayMonth != null) birthday.put("month", birthdayMonth);
-                if (birthdayYear != null) birthday.put("year", birthdayYear);
-                contact.put("birthday", birthday);
-            }
-
-            if (includeAll || fields.contains("account")) {
-                if (accountName != null || accountType != null) {
-                    JSObject account = new JSObject();
-                    account.put("name", accountName);
-                    account.put("type", accountType);
-                    contact.put("account", account);
-                } else {
-                    contact.put("account", null);
-                }
-            }
-
-            return contact;
-        }
-
-        private static Integer safeParse(String value) {
-            try {
-                return Integer.parseInt(value);
-            } catch (Exception ex) {
-                return null;
-            }
-        }
-
-        private static String buildFormattedAddress(String street, String city, String state, String postalCode, String country) {
-            StringBuilder builder = new StringBuilder();
-            if (street != null && !street.isEmpty()) builder.append(street).append('\n');
-            if (city != null && !city.isEmpty()) builder.append(city);
-            if (state != null && !state.isEmpty()) builder.append(builder.length() > 0 ? ", " : "").append(state);
-            if (postalCode != null && !postalCode.isEmpty()) builder.append(' ').append(postalCode);
-            if (country != null && !country.isEmpty()) builder.append(builder.length() > 0 ? "\n" : "").append(country);
-            return builder.toString();
-        }
-
-        private static String mapEmailType(int type) {
-            switch (type) {
-                case ContactsContract.CommonDataKinds.Email.TYPE_HOME:
-                    return "HOME";
-                case ContactsContract.CommonDataKinds.Email.TYPE_WORK:
-                    return "WORK";
-                case ContactsContract.CommonDataKinds.Email.TYPE_OTHER:
-                    return "OTHER";
-                case ContactsContract.CommonDataKinds.Email.TYPE_MOBILE:
-                    return "MOBILE";
-                case ContactsContract.CommonDataKinds.Email.TYPE_CUSTOM:
-                    return "CUSTOM";
-                // TYPE_MAIN constant was removed from Android SDK
-                default:
-                    return "OTHER";
-            }
-        }
-
-        private static String mapPhoneType(int type) {
-            switch (type) {
-                case ContactsContract.CommonDataKinds.Phone.TYPE_HOME:
-                    return "HOME";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_WORK:
-                    return "WORK";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_MOBILE:
-                    return "MOBILE";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_MAIN:
-                    return "MAIN";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_FAX_HOME:
-                    return "HOME_FAX";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_FAX_WORK:
-                    return "WORK_FAX";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_OTHER_FAX:
-                    return "OTHER_FAX";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_PAGER:
-                    return "PAGER";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_CAR:
-                    return "CAR";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_CALLBACK:
-                    return "CALLBACK";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_COMPANY_MAIN:
-                    return "COMPANY_MAIN";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_ASSISTANT:
-                    return "ASSISTANT";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_OTHER:
-                    return "OTHER";
-                case ContactsContract.CommonDataKinds.Phone.TYPE_CUSTOM:
-                    return "CUSTOM";
-                default:
-                    return "OTHER";
-            }
-        }
-
-        private static String mapPostalType(int type) {
-            switch (type) {
-                case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_HOME:
-                    return "HOME";
-                case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_WORK:
-                    return "WORK";
-                case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_OTHER:
-                    return "OTHER";
-                case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_CUSTOM:
-                    return "CUSTOM";
-                default:
-                    return "OTHER";
-            }
-        }
-
-        private static String mapUrlType(int type) {
-            switch (type) {
-                case ContactsContract.CommonDataKinds.Website.TYPE_HOME:
-                    return "HOME";
-                case ContactsContract.CommonDataKinds.Website.TYPE_WORK:
-                    return "WORK";
-                case ContactsContract.CommonDataKinds.Website.TYPE_BLOG:
-                    return "BLOG";
-                case ContactsContract.CommonDataKinds.Website.TYPE_PROFILE:
-                    return "PROFILE";
-                case ContactsContract.CommonDataKinds.Website.TYPE_FTP:
-                    return "FTP";
-                // TYPE_HOME_PAGE and TYPE_SCHOOL constants were removed from Android SDK
-                case ContactsContract.CommonDataKinds.Website.TYPE_OTHER:
-                    return "OTHER";
-                case ContactsContract.CommonDataKinds.Website.TYPE_CUSTOM:
-                    return "CUSTOM";
-                default:
-                    return "OTHER";
-            }
-        }
-    }
 }
@@ -0,0 +1,113 @@
+package app.capgo.contacts;
+
+import android.content.ContentProviderOperation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies the operations of many items in as few {@code applyBatch} transactions as the provider
+ * allows, at most {@link #MAX_OPERATIONS_PER_BATCH} operations each.
+ *
+ * Every item's first operation should allow the provider to yield, so long imports don't hold its
+ * write lock. A chunk is a single transaction, so when one fails its items are replayed one by one
+ * to find the bad ones; the other items of the chunk are still written.
+ */
+final class ChunkedBatch {
+
+    // ContactsProvider refuses batches over 500 operations; keep headroom for contacts with many rows
+    static final int MAX_OPERATIONS_PER_BATCH = 400;
+
+    interface OperationBuilder<T> {
+        void append(ArrayList<ContentProviderOperation> ops, T item) throws Exception;
+    }
+
+    interface Applier<R> {
+        R[] apply(ArrayList<ContentProviderOperation> ops) throws Exception;
+    }
+
+    private ChunkedBatch() {}
+
+    /**
+     * Builds the operations of every item with {@code builder} and applies them with {@code applier}.
+     * Fills {@code firstResults} with the result of each item's first operation, or leaves {@code null}
+     * where {@code errors} is set or the item had nothing to write.
+     */
+    static <T, R> void apply(List<T> items, OperationBuilder<T> builder, Applier<R> applier, R[] firstResults, String[] errors) {
+        ArrayList<ContentProviderOperation> ops = new ArrayList<>();
+        List<Integer> chunkItems = new ArrayList<>();
+        List<Integer> chunkStarts = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            int start = ops.size();
+            try {
+                builder.append(ops, items.get(i));
+            } catch (Exception ex) {
+                ops.subList(start, ops.size()).clear();
+                errors[i] = describeError(ex);
+                continue;
+            }
+            if (ops.size() == start) {
+                // Nothing to write, e.g. an update that changes no rows
+                continue;
+            }
+
+            if (ops.size() > MAX_OPERATIONS_PER_BATCH && !chunkItems.isEmpty()) {
+                // Move this item to the next chunk; its back-references must be rebuilt from zero
+                ops.subList(start, ops.size()).clear();
+                applyChunk(items, builder, applier, ops, chunkItems, chunkStarts, firstResults, errors);
+                ops.clear();
+                chunkItems.clear();
+                chunkStarts.clear();
+                i--;
+                continue;
+            }
+
+            chunkItems.add(i);
+            chunkStarts.add(start);
+        }
+
+        if (!chunkItems.isEmpty()) {
+            applyChunk(items, builder, applier, ops, chunkItems, chunkStarts, firstResults, errors);
+        }
+    }
+
+    private static <T, R> void applyChunk(
+        List<T> items,
+        OperationBuilder<T> builder,
+        Applier<R> applier,
+        ArrayList<ContentProviderOperation> ops,
+        List<Integer> chunkItems,
+        List<Integer> chunkStarts,
+        R[] firstResults,
+        String[] errors
+    ) {
+        try {
+            R[] results = applier.apply(ops);
+            for (int j = 0; j < chunkItems.size(); j++) {
+                firstResults[chunkItems.get(j)] = results[chunkStarts.get(j)];
+            }
+            return;
+        } catch (Exception ex) {
+            if (chunkItems.size() == 1) {
+                errors[chunkItems.get(0)] = describeError(ex);
+                return;
+            }
+        }
+
+        for (int index : chunkItems) {
+            ArrayList<ContentProviderOperation> itemOps = new ArrayList<>();
+            try {
+                builder.append(itemOps, items.get(index));
+                if (!itemOps.isEmpty()) {
+                    firstResults[index] = applier.apply(itemOps)[0];
+                }
+            } catch (Exception ex) {
+                errors[index] = describeError(ex);
+            }
+        }
+    }
+
+    private static String describeError(Exception ex) {
+        return ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,238 @@
+package app.capgo.contacts;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.json.JSONObject;
+
+/**
+ * Serializes a contact list as parallel columns instead of one keyed object per contact.
+ *
+ * The result names every column once in {@code fields}, with the matching value array at the same
+ * position in {@code columns}. Multi-valued fields such as phone numbers become a nested column set
+ * of all the entries in contact order, with {@code offsets[i]} to {@code offsets[i + 1]} being the
+ * entries of contact {@code i}. Type names are stored as indexes into {@code labels}, and flags as 1 or 0.
+ */
+final class ColumnarEncoder {
+
+    private static final Map<String, Function<ContactBuilder, Object>> SCALAR_FIELDS = new LinkedHashMap<>();
+    private static final String[] LABELED_VALUE_FIELDS = { "value", "type", "label", "isPrimary" };
+    private static final String[] URL_FIELDS = { "value", "type", "label" };
+    private static final String[] POSTAL_FIELDS = {
+        "street",
+        "city",
+        "state",
+        "postalCode",
+        "country",
+        "neighborhood",
+        "formatted",
+        "type",
+        "label",
+        "isPrimary"
+    };
+
+    static {
+        SCALAR_FIELDS.put("id", (builder) -> builder.id);
+        SCALAR_FIELDS.put("givenName", (builder) -> builder.givenName);
+        SCALAR_FIELDS.put("familyName", (builder) -> builder.familyName);
+        SCALAR_FIELDS.put("middleName", (builder) -> builder.middleName);
+        SCALAR_FIELDS.put("namePrefix", (builder) -> builder.namePrefix);
+        SCALAR_FIELDS.put("nameSuffix", (builder) -> builder.nameSuffix);
+        SCALAR_FIELDS.put("organizationName", (builder) -> builder.organizationName);
+        SCALAR_FIELDS.put("jobTitle", (builder) -> builder.jobTitle);
+        SCALAR_FIELDS.put("note", (builder) -> builder.note);
+        SCALAR_FIELDS.put("fullName", (builder) -> builder.fullName);
+    }
+
+    private final List<ContactBuilder> builders;
+    private final Map<String, Integer> labelIndexes = new HashMap<>();
+    private final JSArray labels = new JSArray();
+    private final JSArray fieldNames = new JSArray();
+    private final JSArray columns = new JSArray();
+
+    private ColumnarEncoder(List<ContactBuilder> builders) {
+        this.builders = builders;
+    }
+
+    /**
+     * Encodes {@code fields} of {@code builders}, or every field when {@code fields} is {@code null}.
+     */
+    static JSObject encode(List<ContactBuilder> builders, Set<String> fields) {
+        CallMetrics metrics = CallMetrics.current();
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        ColumnarEncoder encoder = new ColumnarEncoder(builders);
+        boolean includeAll = fields == null;
+        boolean includePhoto = includeAll || fields.contains("photo");
+
+        for (Map.Entry<String, Function<ContactBuilder, Object>> field : SCALAR_FIELDS.entrySet()) {
+            // Photo handles refer to their contact by id
+            boolean requested = includeAll || fields.contains(field.getKey()) || ("id".equals(field.getKey()) && includePhoto);
+            if (requested) {
+                encoder.addScalarColumn(field.getKey(), field.getValue());
+            }
+        }
+        if (includePhoto) {
+            encoder.addScalarColumn("photo", (builder) -> builder.photoBase64);
+            encoder.addScalarColumn("photoHandle.version", (builder) -> builder.photoVersion);
+        }
+        if (includeAll || fields.contains("birthday")) {
+            encoder.addScalarColumn("birthday.day", (builder) -> builder.birthdayDay);
+            encoder.addScalarColumn("birthday.month", (builder) -> builder.birthdayMonth);
+            encoder.addScalarColumn("birthday.year", (builder) -> builder.birthdayYear);
+        }
+        if (includeAll || fields.contains("account")) {
+            encoder.addScalarColumn("account.name", (builder) -> builder.accountName);
+            encoder.addScalarColumn("account.type", (builder) -> builder.accountType);
+        }
+        if (includeAll || fields.contains("groupIds")) {
+            encoder.addGroupIdsColumn();
+        }
+        if (includeAll || fields.contains("emailAddresses")) {
+            encoder.addLabeledValuesColumn("emailAddresses", (builder) -> builder.emailAddresses, ContactBuilder::mapEmailType, true);
+        }
+        if (includeAll || fields.contains("phoneNumbers")) {
+            encoder.addLabeledValuesColumn("phoneNumbers", (builder) -> builder.phoneNumbers, ContactBuilder::mapPhoneType, true);
+        }
+        if (includeAll || fields.contains("postalAddresses")) {
+            encoder.addPostalAddressesColumn();
+        }
+        if (includeAll || fields.contains("urlAddresses")) {
+            encoder.addLabeledValuesColumn("urlAddresses", (builder) -> builder.urlAddresses, ContactBuilder::mapUrlType, false);
+        }
+
+        JSObject result = new JSObject();
+        result.put("count", builders.size());
+        result.put("labels", encoder.labels);
+        result.put("fields", encoder.fieldNames);
+        result.put("columns", encoder.columns);
+
+        if (metrics != null) {
+            metrics.serializeNanos.add(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    private void addScalarColumn(String name, Function<ContactBuilder, Object> value) {
+        JSArray column = new JSArray();
+        for (ContactBuilder builder : builders) {
+            column.put(nullable(value.apply(builder)));
+        }
+        fieldNames.put(name);
+        columns.put(column);
+    }
+
+    // Group ids are plain strings rather than objects; they are stored as a single value column
+    private void addGroupIdsColumn() {
+        JSArray offsets = new JSArray();
+        JSArray values = new JSArray();
+        offsets.put(0);
+        for (ContactBuilder builder : builders) {
+            for (int i = 0; i < builder.groupIdCount(); i++) {
+                values.put(builder.groupIdAt(i));
+            }
+            offsets.put(values.length());
+        }
+        addListColumn("groupIds", offsets, new String[] { "value" }, new JSArray[] { values });
+    }
+
+    private void addLabeledValuesColumn(
+        String name,
+        Function<ContactBuilder, List<ContactBuilder.LabeledValue>> entries,
+        IntFunction<String> typeNames,
+        boolean withPrimary
+    ) {
+        JSArray offsets = new JSArray();
+        JSArray values = new JSArray();
+        JSArray types = new JSArray();
+        JSArray labelColumn = new JSArray();
+        JSArray primaries = new JSArray();
+
+        offsets.put(0);
+        for (ContactBuilder builder : builders) {
+            List<ContactBuilder.LabeledValue> list = entries.apply(builder);
+            if (list != null) {
+                for (ContactBuilder.LabeledValue entry : list) {
+                    values.put(entry.value);
+                    types.put(labelIndex(typeNames.apply(entry.type)));
+                    labelColumn.put(nullable(entry.label));
+                    if (withPrimary) {
+                        primaries.put(entry.isPrimary ? 1 : 0);
+                    }
+                }
+            }
+            offsets.put(values.length());
+        }
+
+        JSArray[] entryColumns = withPrimary
+            ? new JSArray[] { values, types, labelColumn, primaries }
+            : new JSArray[] { values, types, labelColumn };
+        addListColumn(name, offsets, withPrimary ? LABELED_VALUE_FIELDS : URL_FIELDS, entryColumns);
+    }
+
+    private void addPostalAddressesColumn() {
+        JSArray offsets = new JSArray();
+        JSArray[] entryColumns = new JSArray[POSTAL_FIELDS.length];
+        for (int i = 0; i < entryColumns.length; i++) {
+            entryColumns[i] = new JSArray();
+        }
+
+        int count = 0;
+        offsets.put(count);
+        for (ContactBuilder builder : builders) {
+            if (builder.postalAddresses != null) {
+                for (ContactBuilder.PostalAddress address : builder.postalAddresses) {
+                    entryColumns[0].put(nullable(address.street));
+                    entryColumns[1].put(nullable(address.city));
+                    entryColumns[2].put(nullable(address.state));
+                    entryColumns[3].put(nullable(address.postalCode));
+                    entryColumns[4].put(nullable(address.country));
+                    entryColumns[5].put(nullable(address.neighborhood));
+                    entryColumns[6].put(address.formatted);
+                    entryColumns[7].put(labelIndex(ContactBuilder.mapPostalType(address.type)));
+                    entryColumns[8].put(nullable(address.label));
+                    entryColumns[9].put(address.isPrimary ? 1 : 0);
+                }
+                count += builder.postalAddresses.size();
+            }
+            offsets.put(count);
+        }
+        addListColumn("postalAddresses", offsets, POSTAL_FIELDS, entryColumns);
+    }
+
+    private void addListColumn(String name, JSArray offsets, String[] entryFields, JSArray[] entryColumns) {
+        JSArray entryFieldNames = new JSArray();
+        JSArray entryColumnArray = new JSArray();
+        for (int f = 0; f < entryFields.length; f++) {
+            entryFieldNames.put(entryFields[f]);
+            entryColumnArray.put(entryColumns[f]);
+        }
+
+        JSObject column = new JSObject();
+        column.put("offsets", offsets);
+        column.put("fields", entryFieldNames);
+        column.put("columns", entryColumnArray);
+        fieldNames.put(name);
+        columns.put(column);
+    }
+
+    private static Object nullable(Object value) {
+        return value != null ? value : JSONObject.NULL;
+    }
+
+    private int labelIndex(String label) {
+        Integer index = labelIndexes.get(label);
+        if (index == null) {
+            index = labelIndexes.size();
+            labelIndexes.put(label, index);
+            labels.put(label);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,440 @@
+package app.capgo.contacts;
+
+import android.provider.ContactsContract;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Accumulates the Data rows of one contact and serializes them to the shape returned to JS.
+ *
+ * Rows are kept as raw values and type codes; JSON is only built by {@link #toJSObject}, so reading a
+ * large list does not allocate a JSON object per email, phone, address and website.
+ */
+final class ContactBuilder {
+
+    final String id;
+    String givenName;
+    String familyName;
+    String middleName;
+    String namePrefix;
+    String nameSuffix;
+    String organizationName;
+    String jobTitle;
+    String note;
+    String fullName;
+    String photoBase64;
+    String photoVersion;
+    String accountName;
+    String accountType;
+    Integer birthdayYear;
+    Integer birthdayMonth;
+    Integer birthdayDay;
+    // Multi-valued fields stay null until their first row, and hold raw values until serialized
+    private long[] groupIds;
+    private int groupIdCount;
+    List<LabeledValue> emailAddresses;
+    List<LabeledValue> phoneNumbers;
+    List<PostalAddress> postalAddresses;
+    List<LabeledValue> urlAddresses;
+
+    ContactBuilder(String id) {
+        this.id = id;
+    }
+
+    void addEmail(String value, int type, String label, boolean isPrimary) {
+        if (value == null) {
+            return;
+        }
+        if (emailAddresses == null) {
+            emailAddresses = new ArrayList<>(2);
+        }
+        boolean custom = type == ContactsContract.CommonDataKinds.Email.TYPE_CUSTOM;
+        emailAddresses.add(new LabeledValue(value, type, custom ? label : null, isPrimary));
+    }
+
+    void addPhone(String value, int type, String label, boolean isPrimary) {
+        if (value == null) {
+            return;
+        }
+        if (phoneNumbers == null) {
+            phoneNumbers = new ArrayList<>(2);
+        }
+        boolean custom = type == ContactsContract.CommonDataKinds.Phone.TYPE_CUSTOM;
+        phoneNumbers.add(new LabeledValue(value, type, custom ? label : null, isPrimary));
+    }
+
+    void addPostalAddress(
+        int type,
+        String label,
+        String street,
+        String city,
+        String state,
+        String postalCode,
+        String country,
+        String neighborhood,
+        boolean isPrimary
+    ) {
+        if (postalAddresses == null) {
+            postalAddresses = new ArrayList<>(1);
+        }
+        boolean custom = type == ContactsContract.CommonDataKinds.StructuredPostal.TYPE_CUSTOM;
+        postalAddresses.add(
+            new PostalAddress(
+                type,
+                custom ? label : null,
+                street,
+                city,
+                state,
+                postalCode,
+                country,
+                neighborhood,
+                buildFormattedAddress(street, city, state, postalCode, country),
+                isPrimary
+            )
+        );
+    }
+
+    void addUrlAddress(String value, int type, String label) {
+        if (value == null) {
+            return;
+        }
+        if (urlAddresses == null) {
+            urlAddresses = new ArrayList<>(1);
+        }
+        boolean custom = type == ContactsContract.CommonDataKinds.Website.TYPE_CUSTOM;
+        urlAddresses.add(new LabeledValue(value, type, custom ? label : null, false));
+    }
+
+    void addGroupId(long groupId) {
+        if (groupIds == null) {
+            groupIds = new long[2];
+        } else if (groupIdCount == groupIds.length) {
+            groupIds = Arrays.copyOf(groupIds, groupIdCount * 2);
+        }
+        groupIds[groupIdCount++] = groupId;
+    }
+
+    int groupIdCount() {
+        return groupIdCount;
+    }
+
+    String groupIdAt(int index) {
+        return String.valueOf(groupIds[index]);
+    }
+
+    void setBirthday(String startDate) {
+        if (startDate == null || startDate.isEmpty()) {
+            return;
+        }
+        // Handle yearless dates: --MM-DD
+        if (startDate.startsWith("--")) {
+            String[] parts = startDate.substring(2).split("-");
+            if (parts.length >= 2) {
+                birthdayMonth = safeParse(parts[0]);
+                birthdayDay = safeParse(parts[1]);
+            }
+        } else {
+            // Standard format: YYYY-MM-DD
+            String[] parts = startDate.split("-");
+            if (parts.length >= 3) {
+                birthdayYear = safeParse(parts[0]);
+                birthdayMonth = safeParse(parts[1]);
+                birthdayDay = safeParse(parts[2]);
+            }
+        }
+    }
+
+    JSObject toJSObject() {
+        return toJSObject(null);
+    }
+
+    JSObject toJSObject(Set<String> fields) {
+        CallMetrics metrics = CallMetrics.current();
+        if (metrics == null) {
+            return serialize(fields);
+        }
+        long start = System.nanoTime();
+        JSObject contact = serialize(fields);
+        metrics.serializeNanos.add(System.nanoTime() - start);
+        return contact;
+    }
+
+    private JSObject serialize(Set<String> fields) {
+        boolean includeAll = fields == null;
+        JSObject contact = new JSObject();
+
+        if (includeAll || fields.contains("id")) contact.put("id", id);
+        if (includeAll || fields.contains("givenName")) contact.put("givenName", givenName);
+        if (includeAll || fields.contains("familyName")) contact.put("familyName", familyName);
+        if (includeAll || fields.contains("middleName")) contact.put("middleName", middleName);
+        if (includeAll || fields.contains("namePrefix")) contact.put("namePrefix", namePrefix);
+        if (includeAll || fields.contains("nameSuffix")) contact.put("nameSuffix", nameSuffix);
+        if (includeAll || fields.contains("organizationName")) contact.put("organizationName", organizationName);
+        if (includeAll || fields.contains("jobTitle")) contact.put("jobTitle", jobTitle);
+        if (includeAll || fields.contains("note")) contact.put("note", note);
+        if (includeAll || fields.contains("fullName")) contact.put("fullName", fullName);
+        if (includeAll || fields.contains("photo")) {
+            contact.put("photo", photoBase64);
+            if (photoVersion != null) {
+                JSObject photoHandle = new JSObject();
+                photoHandle.put("contactId", id);
+                photoHandle.put("version", photoVersion);
+                contact.put("photoHandle", photoHandle);
+            }
+        }
+        if (includeAll || fields.contains("groupIds")) contact.put("groupIds", groupIdsToJSArray());
+        if (includeAll || fields.contains("emailAddresses")) {
+            contact.put("emailAddresses", labeledValuesToJSArray(emailAddresses, ContactBuilder::mapEmailType, true));
+        }
+        if (includeAll || fields.contains("phoneNumbers")) {
+            contact.put("phoneNumbers", labeledValuesToJSArray(phoneNumbers, ContactBuilder::mapPhoneType, true));
+        }
+        if (includeAll || fields.contains("postalAddresses")) contact.put("postalAddresses", postalAddressesToJSArray());
+        if (includeAll || fields.contains("urlAddresses")) {
+            contact.put("urlAddresses", labeledValuesToJSArray(urlAddresses, ContactBuilder::mapUrlType, false));
+        }
+
+        if ((includeAll || fields.contains("birthday")) && (birthdayYear != null || birthdayMonth != null || birthdayDay != null)) {
+            JSObject birthday = new JSObject();
+            if (birthdayDay != null) birthday.put("day", birthdayDay);
+            if (birthdayMonth != null) birthday.put("month", birthdayMonth);
+            if (birthdayYear != null) birthday.put("year", birthdayYear);
+            contact.put("birthday", birthday);
+        }
+
+        if (includeAll || fields.contains("account")) {
+            if (accountName != null || accountType != null) {
+                JSObject account = new JSObject();
+                account.put("name", accountName);
+                account.put("type", accountType);
+                contact.put("account", account);
+            } else {
+                contact.put("account", null);
+            }
+        }
+
+        return contact;
+    }
+
+    private JSArray groupIdsToJSArray() {
+        JSArray array = new JSArray();
+        for (int i = 0; i < groupIdCount; i++) {
+            array.put(groupIdAt(i));
+        }
+        return array;
+    }
+
+    private static JSArray labeledValuesToJSArray(List<LabeledValue> values, IntFunction<String> typeNames, boolean withPrimary) {
+        JSArray array = new JSArray();
+        if (values == null) {
+            return array;
+        }
+        for (LabeledValue value : values) {
+            JSObject entry = new JSObject();
+            entry.put("value", value.value);
+            entry.put("type", typeNames.apply(value.type));
+            if (value.label != null) {
+                entry.put("label", value.label);
+            }
+            if (withPrimary) {
+                entry.put("isPrimary", value.isPrimary);
+            }
+            array.put(entry);
+        }
+        return array;
+    }
+
+    private JSArray postalAddressesToJSArray() {
+        JSArray array = new JSArray();
+        if (postalAddresses == null) {
+            return array;
+        }
+        for (PostalAddress address : postalAddresses) {
+            JSObject entry = new JSObject();
+            entry.put("street", address.street);
+            entry.put("city", address.city);
+            entry.put("state", address.state);
+            entry.put("postalCode", address.postalCode);
+            entry.put("country", address.country);
+            entry.put("neighborhood", address.neighborhood);
+            entry.put("formatted", address.formatted);
+            entry.put("isoCountryCode", null);
+            entry.put("isPrimary", address.isPrimary);
+            entry.put("type", mapPostalType(address.type));
+            if (address.label != null) {
+                entry.put("label", address.label);
+            }
+            array.put(entry);
+        }
+        return array;
+    }
+
+    private static Integer safeParse(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static String buildFormattedAddress(String street, String city, String state, String postalCode, String country) {
+        StringBuilder builder = new StringBuilder();
+        if (street != null && !street.isEmpty()) builder.append(street).append('\n');
+        if (city != null && !city.isEmpty()) builder.append(city);
+        if (state != null && !state.isEmpty()) builder.append(builder.length() > 0 ? ", " : "").append(state);
+        if (postalCode != null && !postalCode.isEmpty()) builder.append(' ').append(postalCode);
+        if (country != null && !country.isEmpty()) builder.append(builder.length() > 0 ? "\n" : "").append(country);
+        return builder.toString();
+    }
+
+    static String mapEmailType(int type) {
+        switch (type) {
+            case ContactsContract.CommonDataKinds.Email.TYPE_HOME:
+                return "HOME";
+            case ContactsContract.CommonDataKinds.Email.TYPE_WORK:
+                return "WORK";
+            case ContactsContract.CommonDataKinds.Email.TYPE_OTHER:
+                return "OTHER";
+            case ContactsContract.CommonDataKinds.Email.TYPE_MOBILE:
+                return "MOBILE";
+            case ContactsContract.CommonDataKinds.Email.TYPE_CUSTOM:
+                return "CUSTOM";
+            // TYPE_MAIN constant was removed from Android SDK
+            default:
+                return "OTHER";
+        }
+    }
+
+    static String mapPhoneType(int type) {
+        switch (type) {
+            case ContactsContract.CommonDataKinds.Phone.TYPE_HOME:
+                return "HOME";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_WORK:
+                return "WORK";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_MOBILE:
+                return "MOBILE";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_MAIN:
+                return "MAIN";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_FAX_HOME:
+                return "HOME_FAX";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_FAX_WORK:
+                return "WORK_FAX";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_OTHER_FAX:
+                return "OTHER_FAX";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_PAGER:
+                return "PAGER";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_CAR:
+                return "CAR";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_CALLBACK:
+                return "CALLBACK";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_COMPANY_MAIN:
+                return "COMPANY_MAIN";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_ASSISTANT:
+                return "ASSISTANT";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_OTHER:
+                return "OTHER";
+            case ContactsContract.CommonDataKinds.Phone.TYPE_CUSTOM:
+                return "CUSTOM";
+            default:
+                return "OTHER";
+        }
+    }
+
+    static String mapPostalType(int type) {
+        switch (type) {
+            case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_HOME:
+                return "HOME";
+            case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_WORK:
+                return "WORK";
+            case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_OTHER:
+                return "OTHER";
+            case ContactsContract.CommonDataKinds.StructuredPostal.TYPE_CUSTOM:
+                return "CUSTOM";
+            default:
+                return "OTHER";
+        }
+    }
+
+    static String mapUrlType(int type) {
+        switch (type) {
+            case ContactsContract.CommonDataKinds.Website.TYPE_HOME:
+                return "HOME";
+            case ContactsContract.CommonDataKinds.Website.TYPE_WORK:
+                return "WORK";
+            case ContactsContract.CommonDataKinds.Website.TYPE_BLOG:
+                return "BLOG";
+            case ContactsContract.CommonDataKinds.Website.TYPE_PROFILE:
+                return "PROFILE";
+            case ContactsContract.CommonDataKinds.Website.TYPE_FTP:
+                return "FTP";
+            // TYPE_HOME_PAGE and TYPE_SCHOOL constants were removed from Android SDK
+            case ContactsContract.CommonDataKinds.Website.TYPE_OTHER:
+                return "OTHER";
+            case ContactsContract.CommonDataKinds.Website.TYPE_CUSTOM:
+                return "CUSTOM";
+            default:
+                return "OTHER";
+        }
+    }
+
+    /**
+     * An email address, phone number or website. {@code label} is only kept for custom types.
+     */
+    static final class LabeledValue {
+
+        final String value;
+        final int type;
+        final String label;
+        final boolean isPrimary;
+
+        LabeledValue(String value, int type, String label, boolean isPrimary) {
+            this.value = value;
+            this.type = type;
+            this.label = label;
+            this.isPrimary = isPrimary;
+        }
+    }
+
+    static final class PostalAddress {
+
+        final int type;
+        final String label;
+        final String street;
+        final String city;
+        final String state;
+        final String postalCode;
+        final String country;
+        final String neighborhood;
+        final String formatted;
+        final boolean isPrimary;
+
+        PostalAddress(
+            int type,
+            String label,
+            String street,
+            String city,
+            String state,
+            String postalCode,
+            String country,
+            String neighborhood,
+            String formatted,
+            boolean isPrimary
+        ) {
+            this.type = type;
+            this.label = label;
+            this.street = street;
+            this.city = city;
+            this.state = state;
+            this.postalCode = postalCode;
+            this.country = country;
+            this.neighborhood = neighborhood;
+            this.formatted = formatted;
+            this.isPrimary = isPrimary;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package app.capgo.contacts;
+
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory LRU cache of built contacts, contact lists and counts.
+ *
+ * Entries are weighted by the number of contacts they hold, so {@code maxSize} bounds the number of
+ * contacts kept in memory whether they were cached one by one or as part of a list. All methods
+ * are synchronized because invalidations arrive on a binder thread.
+ *
+ * A read may start before an invalidation and finish after it. Readers take the {@link #generation()}
+ * before reading and pass it to {@link #put}, which drops the result if an invalidation happened since.
+ */
+final class ContactCache {
+
+    static final String COUNT_KEY = "count";
+
+    private static final String CONTACT_PREFIX = "contact|";
+    private static final String LIST_PREFIX = "list|";
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long generation;
+
+    ContactCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    static String contactKey(String contactId, Set<String> fields) {
+        return CONTACT_PREFIX + contactId + "|" + fieldsKey(fields);
+    }
+
+    static String listKey(Integer limit, Integer offset, String pageToken, Set<String> fields, boolean photoHandles) {
+        return LIST_PREFIX + limit + "|" + offset + "|" + pageToken + "|" + photoHandles + "|" + fieldsKey(fields);
+    }
+
+    private static String fieldsKey(Set<String> fields) {
+        if (fields == null) {
+            return "*";
+        }
+        List<String> sorted = new ArrayList<>(fields);
+        Collections.sort(sorted);
+        return String.join(",", sorted);
+    }
+
+    synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches {@code value} unless the cache was invalidated after {@code readGeneration} was taken.
+     */
+    synchronized void put(String key, Object value, int weight, long readGeneration) {
+        if (weight > maxSize || readGeneration != generation) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(value, weight));
+        if (previous != null) {
+            size -= previous.weight;
+        }
+        size += weight;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every entry for {@code contactId}, plus lists and counts which may include it.
+     */
+    synchronized void invalidateContact(String contactId) {
+        generation++;
+        String contactPrefix = CONTACT_PREFIX + contactId + "|";
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            String key = entry.getKey();
+            if (key.startsWith(contactPrefix) || key.startsWith(LIST_PREFIX) || key.startsWith(COUNT_KEY)) {
+                iterator.remove();
+                size -= entry.getValue().weight;
+            }
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+        size = 0;
+    }
+
+    synchronized JSObject stats() {
+        JSObject stats = new JSObject();
+        stats.put("enabled", true);
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        return stats;
+    }
+
+    private static final class Entry {
+
+        final Object value;
+        final int weight;
+
+        Entry(Object value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package app.capgo.contacts;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.provider.ContactsContract;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.PluginCall;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Counts contacts, optionally filtered, with the cheapest query that answers the filter.
+ *
+ * Filters on the aggregated contact alone are answered by a {@code _COUNT} aggregate, so the
+ * provider returns a single row instead of one row per contact. A group, optionally narrowed to
+ * contacts with a phone number, is answered by the group summary counts. Any other combination with
+ * a group reads the contact id of the group's membership rows, one per raw contact in the group.
+ * An account without a group reads the contact id of the account's raw contacts, then counts the
+ * ones matching the contact filters with {@code _COUNT} aggregates over slices of those ids.
+ */
+final class ContactCountQuery {
+
+    // Stays well below the SQLite limit of 999 bound arguments per statement
+    private static final int IDS_PER_COUNT_QUERY = 500;
+
+    final Boolean hasPhoneNumber;
+    final Boolean starred;
+    final String groupId;
+    final boolean hasAccount;
+    final String accountName;
+    final String accountType;
+
+    private ContactCountQuery(
+        Boolean hasPhoneNumber,
+        Boolean starred,
+        String groupId,
+        boolean hasAccount,
+        String accountName,
+        String accountType
+    ) {
+        this.hasPhoneNumber = hasPhoneNumber;
+        this.starred = starred;
+        this.groupId = groupId;
+        this.hasAccount = hasAccount;
+        this.accountName = accountName;
+        this.accountType = accountType;
+    }
+
+    static ContactCountQuery from(PluginCall call) {
+        JSObject account = call.getObject("account", null);
+        return new ContactCountQuery(
+            call.getBoolean("hasPhoneNumber", null),
+            call.getBoolean("starred", null),
+            call.getString("groupId"),
+            account != null,
+            account != null ? account.getString("name") : null,
+            account != null ? account.getString("type") : null
+        );
+    }
+
+    String cacheKey() {
+        String accountKey = hasAccount ? accountName + "/" + accountType : "*";
+        return ContactCache.COUNT_KEY + "|" + hasPhoneNumber + "|" + starred + "|" + groupId + "|" + accountKey;
+    }
+
+    int count(ContentResolver resolver) {
+        if (groupId == null && !hasAccount) {
+            String selection = appendContactSelection(
+                new StringBuilder(),
+                ContactsContract.Contacts.HAS_PHONE_NUMBER,
+                ContactsContract.Contacts.STARRED
+            );
+            return queryContactsCount(resolver, selection, null);
+        }
+        if (groupId == null) {
+            return countAccountContacts(resolver);
+        }
+        if (!hasAccount && starred == null && !Boolean.FALSE.equals(hasPhoneNumber)) {
+            return queryGroupSummaryCount(resolver);
+        }
+        return countGroupMembers(resolver);
+    }
+
+    private static int queryContactsCount(ContentResolver resolver, String selection, String[] selectionArgs) {
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.Contacts.CONTENT_URI,
+                new String[] { ContactsContract.Contacts._COUNT },
+                selection,
+                selectionArgs,
+                null
+            )
+        ) {
+            return cursor != null && cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    private int queryGroupSummaryCount(ContentResolver resolver) {
+        String countColumn = Boolean.TRUE.equals(hasPhoneNumber)
+            ? ContactsContract.Groups.SUMMARY_WITH_PHONES
+            : ContactsContract.Groups.SUMMARY_COUNT;
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.Groups.CONTENT_SUMMARY_URI,
+                new String[] { countColumn },
+                ContactsContract.Groups._ID + " = ?",
+                new String[] { groupId },
+                null
+            )
+        ) {
+            return cursor != null && cursor.moveToFirst() ? cursor.getInt(0) : 0;
+        }
+    }
+
+    private int countGroupMembers(ContentResolver resolver) {
+        StringBuilder selection = new StringBuilder();
+        List<String> selectionArgs = new ArrayList<>();
+        selection.append(ContactsContract.Data.MIMETYPE).append(" = ? AND ");
+        selection.append(ContactsContract.CommonDataKinds.GroupMembership.GROUP_ROW_ID).append(" = ?");
+        selectionArgs.add(ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE);
+        selectionArgs.add(groupId);
+        if (hasAccount) {
+            appendEquals(selection, selectionArgs, ContactsContract.RawContacts.ACCOUNT_NAME, accountName);
+            appendEquals(selection, selectionArgs, ContactsContract.RawContacts.ACCOUNT_TYPE, accountType);
+        }
+        appendContactSelection(selection, ContactsContract.Data.HAS_PHONE_NUMBER, ContactsContract.Data.STARRED);
+
+        Set<Long> contactIds = new HashSet<>();
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.Data.CONTENT_URI,
+                new String[] { ContactsContract.Data.CONTACT_ID },
+                selection.toString(),
+                selectionArgs.toArray(new String[0]),
+                null
+            )
+        ) {
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    contactIds.add(cursor.getLong(0));
+                }
+            }
+        }
+        return contactIds.size();
+    }
+
+    private int countAccountContacts(ContentResolver resolver) {
+        StringBuilder selection = new StringBuilder(ContactsContract.RawContacts.DELETED + " = 0");
+        List<String> selectionArgs = new ArrayList<>();
+        appendEquals(selection, selectionArgs, ContactsContract.RawContacts.ACCOUNT_NAME, accountName);
+        appendEquals(selection, selectionArgs, ContactsContract.RawContacts.ACCOUNT_TYPE, accountType);
+
+        Set<String> contactIds = new HashSet<>();
+        try (
+            Cursor cursor = MeasuredCursor.query(
+                resolver,
+                ContactsContract.RawContacts.CONTENT_URI,
+                new String[] { ContactsContract.RawContacts.CONTACT_ID },
+                selection.toString(),
+                selectionArgs.toArray(new String[0]),
+                null
+            )
+        ) {
+            if (cursor != null) {
+                while (cursor.moveToNext()) {
+                    if (!cursor.isNull(0)) {
+                        contactIds.add(cursor.getString(0));
+                    }
+                }
+            }
+        }
+        if (hasPhoneNumber == null && starred == null) {
+            return contactIds.size();
+        }
+
+        List<String> ids = new ArrayList<>(contactIds);
+        int count = 0;
+        for (int i = 0; i < ids.size(); i += IDS_PER_COUNT_QUERY) {
+            List<String> slice = ids.subList(i, Math.min(i + IDS_PER_COUNT_QUERY, ids.size()));
+            StringBuilder sliceSelection = new StringBuilder(ContactsContract.Contacts._ID + " IN (");
+            for (int j = 0; j < slice.size(); j++) {
+                sliceSelection.append(j > 0 ? ",?" : "?");
+            }
+            sliceSelection.append(")");
+            appendContactSelection(sliceSelection, ContactsContract.Contacts.HAS_PHONE_NUMBER, ContactsContract.Contacts.STARRED);
+            count += queryContactsCount(resolver, sliceSelection.toString(), slice.toArray(new String[0]));
+        }
+        return count;
+    }
+
+    /**
+     * Appends the conditions on aggregated contact columns, or returns {@code null} if there are none
+     * and {@code selection} is still empty.
+     */
+    private String appendContactSelection(StringBuilder selection, String hasPhoneNumberColumn, String starredColumn) {
+        if (hasPhoneNumber != null) {
+            appendAnd(selection).append(hasPhoneNumberColumn).append(hasPhoneNumber ? " = 1" : " = 0");
+        }
+        if (starred != null) {
+            appendAnd(selection).append(starredColumn).append(starred ? " = 1" : " = 0");
+        }
+        return selection.length() > 0 ? selection.toString() : null;
+    }
+
+    private static void appendEquals(StringBuilder selection, List<String> selectionArgs, String column, String value) {
+        appendAnd(selection).append(column);
+        if (value == null) {
+            selection.append(" IS NULL");
+        } else {
+            selection.append(" = ?");
+            selectionArgs.add(value);
+        }
+    }
+
+    private static StringBuilder appendAnd(StringBuilder selection) {
+        return selection.length() > 0 ? selection.append(" AND ") : selection;
+    }
+}
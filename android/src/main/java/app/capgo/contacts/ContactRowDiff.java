@@ -0,0 +1,279 @@
+package app.capgo.contacts;
+
+import android.content.ContentProviderOperation;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.provider.ContactsContract;
+import android.provider.ContactsContract.CommonDataKinds;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings the data rows of a raw contact to a desired state with as few operations as possible.
+ *
+ * Rows are compared per MIME type. Within a type, a desired row first claims an existing row with
+ * the same value (same address, same number...), then any leftover existing row; a claimed row is
+ * only updated when one of its values differs. Existing rows left unclaimed are deleted and desired
+ * rows left unclaimed are inserted. Rows of MIME types an update does not manage, such as photos,
+ * events and group memberships, are never touched.
+ */
+final class ContactRowDiff {
+
+    static final List<String> MANAGED_MIME_TYPES = Collections.unmodifiableList(
+        Arrays.asList(
+            CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE,
+            CommonDataKinds.Organization.CONTENT_ITEM_TYPE,
+            CommonDataKinds.Note.CONTENT_ITEM_TYPE,
+            CommonDataKinds.Email.CONTENT_ITEM_TYPE,
+            CommonDataKinds.Phone.CONTENT_ITEM_TYPE,
+            CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE,
+            CommonDataKinds.Website.CONTENT_ITEM_TYPE
+        )
+    );
+
+    private static final Map<String, String[]> IDENTITY_COLUMNS = new HashMap<>();
+
+    static {
+        IDENTITY_COLUMNS.put(CommonDataKinds.Email.CONTENT_ITEM_TYPE, new String[] { CommonDataKinds.Email.ADDRESS });
+        IDENTITY_COLUMNS.put(CommonDataKinds.Phone.CONTENT_ITEM_TYPE, new String[] { CommonDataKinds.Phone.NUMBER });
+        IDENTITY_COLUMNS.put(CommonDataKinds.Website.CONTENT_ITEM_TYPE, new String[] { CommonDataKinds.Website.URL });
+        IDENTITY_COLUMNS.put(
+            CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE,
+            new String[] {
+                CommonDataKinds.StructuredPostal.STREET,
+                CommonDataKinds.StructuredPostal.CITY,
+                CommonDataKinds.StructuredPostal.REGION,
+                CommonDataKinds.StructuredPostal.POSTCODE,
+                CommonDataKinds.StructuredPostal.COUNTRY
+            }
+        );
+    }
+
+    // Every column the managed kinds write lives in DATA1..DATA10
+    private static final String[] ROW_COLUMNS = {
+        ContactsContract.Data._ID,
+        ContactsContract.Data.RAW_CONTACT_ID,
+        ContactsContract.Data.MIMETYPE,
+        ContactsContract.Data.DATA1,
+        ContactsContract.Data.DATA2,
+        ContactsContract.Data.DATA3,
+        ContactsContract.Data.DATA4,
+        ContactsContract.Data.DATA5,
+        ContactsContract.Data.DATA6,
+        ContactsContract.Data.DATA7,
+        ContactsContract.Data.DATA8,
+        ContactsContract.Data.DATA9,
+        ContactsContract.Data.DATA10
+    };
+
+    private static final int QUERY_BATCH_SIZE = 50;
+
+    private ContactRowDiff() {}
+
+    static final class Row {
+
+        final String id;
+        final String mimeType;
+        final Map<String, String> values;
+
+        Row(String id, String mimeType, Map<String, String> values) {
+            this.id = id;
+            this.mimeType = mimeType;
+            this.values = values;
+        }
+    }
+
+    /**
+     * One write needed to reach the desired rows: an insert of {@code desired} when {@code existing}
+     * is {@code null}, a delete of {@code existing} when {@code desired} is {@code -1}, else an update.
+     */
+    static final class Change {
+
+        final Row existing;
+        final int desired;
+
+        Change(Row existing, int desired) {
+            this.existing = existing;
+            this.desired = desired;
+        }
+    }
+
+    /**
+     * Reads the managed rows of {@code rawContactIds}, keyed by raw contact id.
+     */
+    static Map<String, List<Row>> queryRows(ContentResolver resolver, List<String> rawContactIds) {
+        Map<String, List<Row>> rows = new HashMap<>();
+
+        for (int i = 0; i < rawContactIds.size(); i += QUERY_BATCH_SIZE) {
+            List<String> batchIds = rawContactIds.subList(i, Math.min(i + QUERY_BATCH_SIZE, rawContactIds.size()));
+            List<String> selectionArgs = new ArrayList<>(batchIds);
+            StringBuilder selection = new StringBuilder(ContactsContract.Data.RAW_CONTACT_ID + " IN (");
+            for (int j = 0; j < batchIds.size(); j++) {
+                if (j > 0) selection.append(",");
+                selection.append("?");
+            }
+            selection.append(")");
+            DataProjection.appendMimeTypeSelection(selection, selectionArgs, MANAGED_MIME_TYPES);
+
+            try (
+                Cursor cursor = MeasuredCursor.query(
+                    resolver,
+                    ContactsContract.Data.CONTENT_URI,
+                    ROW_COLUMNS,
+                    selection.toString(),
+                    selectionArgs.toArray(new String[0]),
+                    ContactsContract.Data._ID + " ASC"
+                )
+            ) {
+                if (cursor == null) {
+                    continue;
+                }
+                int idIndex = cursor.getColumnIndexOrThrow(ContactsContract.Data._ID);
+                int rawContactIdIndex = cursor.getColumnIndexOrThrow(ContactsContract.Data.RAW_CONTACT_ID);
+                int mimeTypeIndex = cursor.getColumnIndexOrThrow(ContactsContract.Data.MIMETYPE);
+                while (cursor.moveToNext()) {
+                    Map<String, String> values = new HashMap<>();
+                    for (int column = 0; column < ROW_COLUMNS.length; column++) {
+                        values.put(ROW_COLUMNS[column], cursor.getString(column));
+                    }
+                    String rawContactId = cursor.getString(rawContactIdIndex);
+                    List<Row> contactRows = rows.get(rawContactId);
+                    if (contactRows == null) {
+                        contactRows = new ArrayList<>();
+                        rows.put(rawContactId, contactRows);
+                    }
+                    contactRows.add(new Row(cursor.getString(idIndex), cursor.getString(mimeTypeIndex), values));
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Appends the operations turning {@code existing} into {@code desired}. Each desired row must
+     * carry its {@code MIMETYPE}; rows of unmanaged MIME types are ignored.
+     */
+    static void appendOperations(
+        ArrayList<ContentProviderOperation> ops,
+        String rawContactId,
+        List<Row> existing,
+        List<ContentValues> desired
+    ) {
+        List<Map<String, String>> desiredValues = new ArrayList<>();
+        for (ContentValues values : desired) {
+            Map<String, String> map = new HashMap<>();
+            for (String column : values.keySet()) {
+                map.put(column, values.getAsString(column));
+            }
+            desiredValues.add(map);
+        }
+
+        List<Change> changes = diff(existing, desiredValues);
+        for (int i = 0; i < changes.size(); i++) {
+            Change change = changes.get(i);
+            ContentProviderOperation.Builder builder;
+            if (change.existing == null) {
+                builder = ContentProviderOperation.newInsert(ContactsContract.Data.CONTENT_URI)
+                    .withValue(ContactsContract.Data.RAW_CONTACT_ID, rawContactId)
+                    .withValues(desired.get(change.desired));
+            } else if (change.desired >= 0) {
+                ContentValues values = new ContentValues(desired.get(change.desired));
+                values.remove(ContactsContract.Data.MIMETYPE);
+                builder = ContentProviderOperation.newUpdate(ContactsContract.Data.CONTENT_URI)
+                    .withSelection(ContactsContract.Data._ID + " = ?", new String[] { change.existing.id })
+                    .withValues(values);
+            } else {
+                builder = ContentProviderOperation.newDelete(ContactsContract.Data.CONTENT_URI).withSelection(
+                    ContactsContract.Data._ID + " = ?",
+                    new String[] { change.existing.id }
+                );
+            }
+            ops.add(builder.withYieldAllowed(i == 0).build());
+        }
+    }
+
+    /**
+     * Compares {@code existing} with {@code desired}, given as column to value maps, and returns the
+     * writes needed, per MIME type: inserts and updates in desired order, then deletes.
+     */
+    static List<Change> diff(List<Row> existing, List<Map<String, String>> desired) {
+        List<Change> changes = new ArrayList<>();
+
+        for (String mimeType : MANAGED_MIME_TYPES) {
+            List<Row> unclaimed = new ArrayList<>();
+            if (existing != null) {
+                for (Row row : existing) {
+                    if (mimeType.equals(row.mimeType)) {
+                        unclaimed.add(row);
+                    }
+                }
+            }
+            List<Integer> wanted = new ArrayList<>();
+            for (int i = 0; i < desired.size(); i++) {
+                if (mimeType.equals(desired.get(i).get(ContactsContract.Data.MIMETYPE))) {
+                    wanted.add(i);
+                }
+            }
+
+            // First pass: same value. Second pass: anything left, so an edited value is an update, not delete + insert.
+            Row[] claims = new Row[wanted.size()];
+            String[] identity = IDENTITY_COLUMNS.get(mimeType);
+            if (identity != null) {
+                for (int i = 0; i < wanted.size(); i++) {
+                    claims[i] = claim(unclaimed, desired.get(wanted.get(i)), Arrays.asList(identity));
+                }
+            }
+            for (int i = 0; i < wanted.size(); i++) {
+                if (claims[i] == null && !unclaimed.isEmpty()) {
+                    claims[i] = unclaimed.remove(0);
+                }
+            }
+
+            for (int i = 0; i < wanted.size(); i++) {
+                Map<String, String> values = desired.get(wanted.get(i));
+                if (claims[i] == null || !matches(claims[i].values, values, values.keySet())) {
+                    changes.add(new Change(claims[i], wanted.get(i)));
+                }
+            }
+            for (Row row : unclaimed) {
+                changes.add(new Change(row, -1));
+            }
+        }
+
+        return changes;
+    }
+
+    private static Row claim(List<Row> unclaimed, Map<String, String> values, Collection<String> identity) {
+        Iterator<Row> iterator = unclaimed.iterator();
+        while (iterator.hasNext()) {
+            Row row = iterator.next();
+            if (matches(row.values, values, identity)) {
+                iterator.remove();
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(Map<String, String> current, Map<String, String> wanted, Collection<String> columns) {
+        for (String column : columns) {
+            if (!normalize(current.get(column)).equals(normalize(wanted.get(column)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Inserts write "" for missing labels while the provider may hold null; treat them alike
+    private static String normalize(String value) {
+        return value != null ? value : "";
+    }
+}
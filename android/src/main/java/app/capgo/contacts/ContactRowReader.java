@@ -0,0 +1,142 @@
+package app.capgo.contacts;
+
+import android.database.Cursor;
+import android.provider.ContactsContract;
+import android.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decodes ContactsContract Data rows into {@link ContactBuilder}s. Kept free of provider access so
+ * the decoding can run against any {@link Cursor}.
+ */
+final class ContactRowReader {
+
+    private ContactRowReader() {}
+
+    /**
+     * Walks a Data cursor sorted by contact and hands each completed contact to {@code sink}, after
+     * skipping the first {@code skip} contacts. The cursor must carry the contact columns of
+     * {@link DataProjection#forFields} with {@code includeContactColumns} set.
+     */
+    static void readJoined(Cursor dataCursor, DataProjection projection, boolean includeAccount, int skip, Consumer<ContactBuilder> sink) {
+        Set<String> mimeTypes = new HashSet<>(projection.mimeTypes);
+        DataProjection.ColumnIndex columns = projection.resolve(dataCursor);
+        ContactBuilder current = null;
+        int position = -1;
+
+        while (dataCursor.moveToNext()) {
+            String contactId = dataCursor.getString(columns.contactId);
+            if (current == null || !current.id.equals(contactId)) {
+                if (current != null && position >= skip) {
+                    sink.accept(current);
+                }
+                position++;
+                current = new ContactBuilder(contactId);
+                if (position < skip) {
+                    continue;
+                }
+                current.fullName = dataCursor.getString(columns.displayName);
+                // Rows are ordered by raw contact, so the first row carries the same account fillAccountInfo picks
+                if (includeAccount && columns.accountName >= 0) {
+                    current.accountName = dataCursor.getString(columns.accountName);
+                    current.accountType = columns.accountType >= 0 ? dataCursor.getString(columns.accountType) : null;
+                }
+            }
+
+            if (position < skip) {
+                continue;
+            }
+            // Filtered here rather than in the selection so contacts without matching rows are still listed
+            if (mimeTypes.contains(dataCursor.getString(columns.mimeType))) {
+                readRow(current, dataCursor, columns);
+            }
+        }
+
+        if (current != null && position >= skip) {
+            sink.accept(current);
+        }
+    }
+
+    /**
+     * Decodes one Data row into {@code builder}. Columns that were not projected are never read.
+     */
+    static void readRow(ContactBuilder builder, Cursor dataCursor, DataProjection.ColumnIndex columns) {
+        String mimeType = dataCursor.getString(columns.mimeType);
+        switch (mimeType) {
+            case ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE:
+                builder.givenName = dataCursor.getString(columns.givenName);
+                builder.familyName = dataCursor.getString(columns.familyName);
+                builder.middleName = dataCursor.getString(columns.middleName);
+                builder.namePrefix = dataCursor.getString(columns.namePrefix);
+                builder.nameSuffix = dataCursor.getString(columns.nameSuffix);
+                break;
+            case ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE:
+                builder.addEmail(
+                    dataCursor.getString(columns.emailAddress),
+                    dataCursor.getInt(columns.emailType),
+                    dataCursor.getString(columns.emailLabel),
+                    dataCursor.getInt(columns.isPrimary) == 1
+                );
+                break;
+            case ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE:
+                builder.addPhone(
+                    dataCursor.getString(columns.phoneNumber),
+                    dataCursor.getInt(columns.phoneType),
+                    dataCursor.getString(columns.phoneLabel),
+                    dataCursor.getInt(columns.isPrimary) == 1
+                );
+                break;
+            case ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE:
+                builder.addPostalAddress(
+                    dataCursor.getInt(columns.postalType),
+                    dataCursor.getString(columns.postalLabel),
+                    dataCursor.getString(columns.postalStreet),
+                    dataCursor.getString(columns.postalCity),
+                    dataCursor.getString(columns.postalRegion),
+                    dataCursor.getString(columns.postalCode),
+                    dataCursor.getString(columns.postalCountry),
+                    dataCursor.getString(columns.postalNeighborhood),
+                    dataCursor.getInt(columns.isPrimary) == 1
+                );
+                break;
+            case ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE:
+                builder.addUrlAddress(
+                    dataCursor.getString(columns.websiteUrl),
+                    dataCursor.getInt(columns.websiteType),
+                    dataCursor.getString(columns.websiteLabel)
+                );
+                break;
+            case ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE:
+                builder.organizationName = dataCursor.getString(columns.company);
+                builder.jobTitle = dataCursor.getString(columns.jobTitle);
+                break;
+            case ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE:
+                builder.note = dataCursor.getString(columns.note);
+                break;
+            case ContactsContract.CommonDataKinds.Event.CONTENT_ITEM_TYPE:
+                int eventType = dataCursor.getInt(columns.eventType);
+                if (eventType == ContactsContract.CommonDataKinds.Event.TYPE_BIRTHDAY) {
+                    builder.setBirthday(dataCursor.getString(columns.eventStartDate));
+                }
+                break;
+            case ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE:
+                builder.addGroupId(dataCursor.getLong(columns.groupRowId));
+                break;
+            case ContactsContract.CommonDataKinds.Photo.CONTENT_ITEM_TYPE:
+                if (columns.photo >= 0) {
+                    byte[] photoData = dataCursor.getBlob(columns.photo);
+                    if (photoData != null) {
+                        builder.photoBase64 = Base64.encodeToString(photoData, Base64.NO_WRAP);
+                    }
+                } else if (builder.photoVersion == null) {
+                    // Handle mode: the row id changes when the photo is replaced, the data version when it is edited
+                    builder.photoVersion = dataCursor.getLong(columns.dataId) + "." + dataCursor.getInt(columns.dataVersion);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package app.capgo.contacts;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.json.JSONException;
+
+/**
+ * Persistent copy of the contact list, served on cold start before the provider has been read.
+ *
+ * Each contact is stored as its full serialized form (photos as handles) next to its display name,
+ * which orders the list. The order is the one the provider lists contacts in, display name with the
+ * default collation and then numeric id, so offsets and page tokens carry over between both sources.
+ * The sync token is the provider time of the last reconcile; contacts updated or deleted after it are
+ * all that has to be read to bring the snapshot up to date.
+ */
+final class ContactSnapshot extends SQLiteOpenHelper {
+
+    static final long NO_SYNC_TOKEN = -1;
+
+    private static final String DATABASE_NAME = "capacitor_contacts_snapshot.db";
+    private static final int DATABASE_VERSION = 2;
+
+    private static final String TABLE_CONTACTS = "contacts";
+    private static final String TABLE_META = "meta";
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_DISPLAY_NAME = "display_name";
+    private static final String COLUMN_JSON = "json";
+    private static final String COLUMN_KEY = "key";
+    private static final String COLUMN_VALUE = "value";
+    private static final String KEY_SYNC_TOKEN = "syncToken";
+
+    ContactSnapshot(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL(
+            "CREATE TABLE " +
+                TABLE_CONTACTS +
+                " (" +
+                COLUMN_ID +
+                " INTEGER PRIMARY KEY, " +
+                COLUMN_DISPLAY_NAME +
+                " TEXT, " +
+                COLUMN_JSON +
+                " TEXT NOT NULL)"
+        );
+        db.execSQL("CREATE INDEX contacts_display_name ON " + TABLE_CONTACTS + " (" + COLUMN_DISPLAY_NAME + ")");
+        db.execSQL("CREATE TABLE " + TABLE_META + " (" + COLUMN_KEY + " TEXT PRIMARY KEY, " + COLUMN_VALUE + " TEXT)");
+    }
+
+    /**
+     * Deletes the snapshot from disk, for when the app may no longer read contacts.
+     */
+    static void delete(Context context) {
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // A snapshot is only a copy; rebuilding it is cheaper than migrating it
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_CONTACTS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_META);
+        onCreate(db);
+    }
+
+    /**
+     * @return the provider time the snapshot is current as of, or {@link #NO_SYNC_TOKEN} if it was never built
+     */
+    long getSyncToken() {
+        try (
+            Cursor cursor = getReadableDatabase().query(
+                TABLE_META,
+                new String[] { COLUMN_VALUE },
+                COLUMN_KEY + " = ?",
+                new String[] { KEY_SYNC_TOKEN },
+                null,
+                null,
+                null
+            )
+        ) {
+            return cursor.moveToFirst() ? Long.parseLong(cursor.getString(0)) : NO_SYNC_TOKEN;
+        }
+    }
+
+    /**
+     * Reads a page of the snapshot in display-name order, keeping only {@code fields} of each contact.
+     * The page starts after {@code after} when it is set, and has a {@code nextPageToken} when it is full.
+     */
+    JSObject read(Integer limit, Integer offset, PageToken after, Set<String> fields) throws JSONException {
+        String limitClause = null;
+        if (limit != null) {
+            limitClause = (offset != null ? offset : 0) + "," + limit;
+        } else if (offset != null) {
+            limitClause = offset + ",-1";
+        }
+        List<String> selectionArgs = new ArrayList<>();
+        String selection = after != null ? after.selection(COLUMN_DISPLAY_NAME, COLUMN_ID, selectionArgs) : null;
+
+        JSArray contacts = new JSArray();
+        PageToken last = null;
+        try (
+            Cursor cursor = getReadableDatabase().query(
+                TABLE_CONTACTS,
+                new String[] { COLUMN_DISPLAY_NAME, COLUMN_ID, COLUMN_JSON },
+                selection,
+                selectionArgs.isEmpty() ? null : selectionArgs.toArray(new String[0]),
+                null,
+                null,
+                COLUMN_DISPLAY_NAME + " ASC, " + COLUMN_ID + " ASC",
+                limitClause
+            )
+        ) {
+            while (cursor.moveToNext()) {
+                JSObject contact = new JSObject(cursor.getString(2));
+                if (fields != null) {
+                    retainFields(contact, fields);
+                }
+                contacts.put(contact);
+                last = PageToken.at(cursor.isNull(0) ? null : cursor.getString(0), cursor.getLong(1));
+            }
+        }
+
+        JSObject result = new JSObject();
+        // A short page is the last one
+        if (limit != null && limit > 0 && contacts.length() == limit && last != null) {
+            result.put("nextPageToken", last.encode());
+        }
+        result.put("contacts", contacts);
+        return result;
+    }
+
+    /**
+     * Applies a reconcile in one transaction: stores {@code upserts}, drops {@code deletedIds} and
+     * records {@code syncToken}. With {@code replace}, every previously stored contact is dropped first.
+     */
+    void apply(List<JSObject> upserts, List<String> deletedIds, long syncToken, boolean replace) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (replace) {
+                db.delete(TABLE_CONTACTS, null, null);
+            }
+            ContentValues values = new ContentValues();
+            for (JSObject contact : upserts) {
+                values.clear();
+                values.put(COLUMN_ID, contact.getString("id"));
+                values.put(COLUMN_DISPLAY_NAME, contact.getString("fullName"));
+                values.put(COLUMN_JSON, contact.toString());
+                db.insertWithOnConflict(TABLE_CONTACTS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            for (String contactId : deletedIds) {
+                db.delete(TABLE_CONTACTS, COLUMN_ID + " = ?", new String[] { contactId });
+            }
+
+            values.clear();
+            values.put(COLUMN_KEY, KEY_SYNC_TOKEN);
+            values.put(COLUMN_VALUE, String.valueOf(syncToken));
+            db.insertWithOnConflict(TABLE_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void retainFields(JSObject contact, Set<String> fields) {
+        Iterator<String> keys = contact.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            // The photo field is stored as a handle
+            boolean requested = fields.contains(key) || ("photoHandle".equals(key) && fields.contains("photo"));
+            if (!requested) {
+                keys.remove();
+            }
+        }
+    }
+}
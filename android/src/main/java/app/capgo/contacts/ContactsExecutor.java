@@ -0,0 +1,110 @@
+package app.capgo.contacts;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs ContactsProvider work off the plugin thread.
+ *
+ * Reads go to a small pool so independent queries run in parallel, writes go to a single thread so
+ * they are applied in the order they were called. Both lanes have a bounded queue; a task that does
+ * not fit is refused rather than queued without limit. A third pool sized to the device cores runs
+ * the batch queries a single read is split into; it is separate from the read lane so a read waiting
+ * on its batches can never starve them of threads.
+ */
+final class ContactsExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor readLane;
+    private final ThreadPoolExecutor writeLane;
+    private final ThreadPoolExecutor fetchPool;
+
+    ContactsExecutor(int readThreads, int queueDepth) {
+        readLane = createLane(readThreads, new ArrayBlockingQueue<>(Math.max(1, queueDepth)), "CapacitorContacts-read");
+        writeLane = createLane(1, new ArrayBlockingQueue<>(Math.max(1, queueDepth)), "CapacitorContacts-write");
+        fetchPool = createLane(Runtime.getRuntime().availableProcessors(), new LinkedBlockingQueue<>(), "CapacitorContacts-fetch");
+    }
+
+    static int defaultReadThreads() {
+        return Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @return {@code false} if the read queue is full
+     */
+    boolean read(Runnable task) {
+        return submit(readLane, task);
+    }
+
+    /**
+     * @return {@code false} if the write queue is full
+     */
+    boolean write(Runnable task) {
+        return submit(writeLane, task);
+    }
+
+    /**
+     * Runs {@code tasks} on the fetch pool and waits for all of them, rethrowing the first failure.
+     */
+    void invokeAll(List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        for (Future<Void> future : fetchPool.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    void shutdown() {
+        readLane.shutdown();
+        writeLane.shutdown();
+        fetchPool.shutdown();
+    }
+
+    private static boolean submit(ThreadPoolExecutor lane, Runnable task) {
+        try {
+            lane.execute(task);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    private static ThreadPoolExecutor createLane(int threads, BlockingQueue<Runnable> queue, String name) {
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(
+            threads,
+            threads,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            queue,
+            new NamedThreadFactory(name)
+        );
+        lane.allowCoreThreadTimeOut(true);
+        return lane;
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package app.capgo.contacts;
+
+import android.database.Cursor;
+import android.provider.ContactsContract;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plans the minimal set of Data table columns needed for the requested contact fields and
+ * resolves their indices once per cursor, so rows can be decoded without name lookups.
+ */
+final class DataProjection {
+
+    private static final List<String> ALL_MIME_TYPES = Collections.unmodifiableList(
+        Arrays.asList(
+            ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Event.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE,
+            ContactsContract.CommonDataKinds.Photo.CONTENT_ITEM_TYPE
+        )
+    );
+
+    final String[] columns;
+    final List<String> mimeTypes;
+
+    private DataProjection(String[] columns, List<String> mimeTypes) {
+        this.columns = columns;
+        this.mimeTypes = mimeTypes;
+    }
+
+    /**
+     * @param fields requested contact fields, or {@code null} for every field
+     * @param includeContactColumns whether to also project the display name and account columns
+     *     joined onto each Data row
+     * @param photoHandles whether photo rows should carry a version handle instead of the blob
+     */
+    static DataProjection forFields(Set<String> fields, boolean includeContactColumns, boolean photoHandles) {
+        List<String> mimeTypes = fields == null ? ALL_MIME_TYPES : getMimeTypesForFields(fields);
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add(ContactsContract.Data.CONTACT_ID);
+        columns.add(ContactsContract.Data.MIMETYPE);
+
+        if (includeContactColumns) {
+            columns.add(ContactsContract.Data.DISPLAY_NAME_PRIMARY);
+            if (fields == null || fields.contains("account")) {
+                columns.add(ContactsContract.RawContacts.ACCOUNT_NAME);
+                columns.add(ContactsContract.RawContacts.ACCOUNT_TYPE);
+            }
+        }
+
+        for (String mimeType : mimeTypes) {
+            addColumnsForMimeType(columns, mimeType, photoHandles);
+        }
+
+        return new DataProjection(columns.toArray(new String[0]), mimeTypes);
+    }
+
+    static List<String> getMimeTypesForFields(Set<String> fields) {
+        List<String> mimeTypes = new ArrayList<>();
+        // Always fetch structured name for basic display
+        mimeTypes.add(ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE);
+
+        if (fields == null) {
+            return mimeTypes;
+        }
+
+        if (fields.contains("organizationName") || fields.contains("jobTitle")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("emailAddresses")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("phoneNumbers")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("postalAddresses")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("urlAddresses")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("note")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("birthday")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Event.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("groupIds")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE);
+        }
+        if (fields.contains("photo")) {
+            mimeTypes.add(ContactsContract.CommonDataKinds.Photo.CONTENT_ITEM_TYPE);
+        }
+
+        return mimeTypes;
+    }
+
+    /**
+     * Appends {@code MIMETYPE IN (?,...)} for the planned MIME types to {@code selection}.
+     */
+    void appendMimeTypeSelection(StringBuilder selection, List<String> selectionArgs) {
+        appendMimeTypeSelection(selection, selectionArgs, mimeTypes);
+    }
+
+    static void appendMimeTypeSelection(StringBuilder selection, List<String> selectionArgs, List<String> mimeTypes) {
+        if (selection.length() > 0) {
+            selection.append(" AND ");
+        }
+        selection.append(ContactsContract.Data.MIMETYPE).append(" IN (");
+        for (int i = 0; i < mimeTypes.size(); i++) {
+            if (i > 0) selection.append(",");
+            selection.append("?");
+            selectionArgs.add(mimeTypes.get(i));
+        }
+        selection.append(")");
+    }
+
+    ColumnIndex resolve(Cursor cursor) {
+        return new ColumnIndex(cursor);
+    }
+
+    private static void addColumnsForMimeType(Set<String> columns, String mimeType, boolean photoHandles) {
+        switch (mimeType) {
+            case ContactsContract.CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.StructuredName.GIVEN_NAME);
+                columns.add(ContactsContract.CommonDataKinds.StructuredName.FAMILY_NAME);
+                columns.add(ContactsContract.CommonDataKinds.StructuredName.MIDDLE_NAME);
+                columns.add(ContactsContract.CommonDataKinds.StructuredName.PREFIX);
+                columns.add(ContactsContract.CommonDataKinds.StructuredName.SUFFIX);
+                break;
+            case ContactsContract.CommonDataKinds.Email.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.Email.ADDRESS);
+                columns.add(ContactsContract.CommonDataKinds.Email.TYPE);
+                columns.add(ContactsContract.CommonDataKinds.Email.LABEL);
+                columns.add(ContactsContract.Data.IS_PRIMARY);
+                break;
+            case ContactsContract.CommonDataKinds.Phone.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.Phone.NUMBER);
+                columns.add(ContactsContract.CommonDataKinds.Phone.TYPE);
+                columns.add(ContactsContract.CommonDataKinds.Phone.LABEL);
+                columns.add(ContactsContract.Data.IS_PRIMARY);
+                break;
+            case ContactsContract.CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.TYPE);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.LABEL);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.STREET);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.CITY);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.REGION);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.POSTCODE);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.COUNTRY);
+                columns.add(ContactsContract.CommonDataKinds.StructuredPostal.NEIGHBORHOOD);
+                columns.add(ContactsContract.Data.IS_PRIMARY);
+                break;
+            case ContactsContract.CommonDataKinds.Website.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.Website.URL);
+                columns.add(ContactsContract.CommonDataKinds.Website.TYPE);
+                columns.add(ContactsContract.CommonDataKinds.Website.LABEL);
+                break;
+            case ContactsContract.CommonDataKinds.Organization.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.Organization.COMPANY);
+                columns.add(ContactsContract.CommonDataKinds.Organization.TITLE);
+                break;
+            case ContactsContract.CommonDataKinds.Note.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.Note.NOTE);
+                break;
+            case ContactsContract.CommonDataKinds.Event.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.Event.TYPE);
+                columns.add(ContactsContract.CommonDataKinds.Event.START_DATE);
+                break;
+            case ContactsContract.CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE:
+                columns.add(ContactsContract.CommonDataKinds.GroupMembership.GROUP_ROW_ID);
+                break;
+            case ContactsContract.CommonDataKinds.Photo.CONTENT_ITEM_TYPE:
+                if (photoHandles) {
+                    columns.add(ContactsContract.Data._ID);
+                    columns.add(ContactsContract.Data.DATA_VERSION);
+                } else {
+                    columns.add(ContactsContract.CommonDataKinds.Photo.PHOTO);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Column indices of a single cursor. Several fields share the same generic DATA column, so
+     * their indices are equal; a field that was not projected resolves to {@code -1}.
+     */
+    static final class ColumnIndex {
+
+        final int contactId;
+        final int mimeType;
+        final int displayName;
+        final int accountName;
+        final int accountType;
+        final int isPrimary;
+        final int givenName;
+        final int familyName;
+        final int middleName;
+        final int namePrefix;
+        final int nameSuffix;
+        final int emailAddress;
+        final int emailType;
+        final int emailLabel;
+        final int phoneNumber;
+        final int phoneType;
+        final int phoneLabel;
+        final int postalType;
+        final int postalLabel;
+        final int postalStreet;
+        final int postalCity;
+        final int postalRegion;
+        final int postalCode;
+        final int postalCountry;
+        final int postalNeighborhood;
+        final int websiteUrl;
+        final int websiteType;
+        final int websiteLabel;
+        final int company;
+        final int jobTitle;
+        final int note;
+        final int eventType;
+        final int eventStartDate;
+        final int groupRowId;
+        final int photo;
+        final int dataId;
+        final int dataVersion;
+
+        private ColumnIndex(Cursor cursor) {
+            contactId = cursor.getColumnIndexOrThrow(ContactsContract.Data.CONTACT_ID);
+            mimeType = cursor.getColumnIndexOrThrow(ContactsContract.Data.MIMETYPE);
+            displayName = cursor.getColumnIndex(ContactsContract.Data.DISPLAY_NAME_PRIMARY);
+            accountName = cursor.getColumnIndex(ContactsContract.RawContacts.ACCOUNT_NAME);
+            accountType = cursor.getColumnIndex(ContactsContract.RawContacts.ACCOUNT_TYPE);
+            isPrimary = cursor.getColumnIndex(ContactsContract.Data.IS_PRIMARY);
+            givenName = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredName.GIVEN_NAME);
+            familyName = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredName.FAMILY_NAME);
+            middleName = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredName.MIDDLE_NAME);
+            namePrefix = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredName.PREFIX);
+            nameSuffix = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredName.SUFFIX);
+            emailAddress = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Email.ADDRESS);
+            emailType = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Email.TYPE);
+            emailLabel = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Email.LABEL);
+            phoneNumber = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Phone.NUMBER);
+            phoneType = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Phone.TYPE);
+            phoneLabel = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Phone.LABEL);
+            postalType = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.TYPE);
+            postalLabel = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.LABEL);
+            postalStreet = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.STREET);
+            postalCity = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.CITY);
+            postalRegion = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.REGION);
+            postalCode = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.POSTCODE);
+            postalCountry = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.COUNTRY);
+            postalNeighborhood = cursor.getColumnIndex(ContactsContract.CommonDataKinds.StructuredPostal.NEIGHBORHOOD);
+            websiteUrl = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Website.URL);
+            websiteType = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Website.TYPE);
+            websiteLabel = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Website.LABEL);
+            company = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Organization.COMPANY);
+            jobTitle = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Organization.TITLE);
+            note = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Note.NOTE);
+            eventType = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Event.TYPE);
+            eventStartDate = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Event.START_DATE);
+            groupRowId = cursor.getColumnIndex(ContactsContract.CommonDataKinds.GroupMembership.GROUP_ROW_ID);
+            photo = cursor.getColumnIndex(ContactsContract.CommonDataKinds.Photo.PHOTO);
+            dataId = cursor.getColumnIndex(ContactsContract.Data._ID);
+            dataVersion = cursor.getColumnIndex(ContactsContract.Data.DATA_VERSION);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package app.capgo.contacts;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.net.Uri;
+import android.os.CancellationSignal;
+import android.provider.ContactsContract;
+import java.util.List;
+
+/**
+ * Cursor that reports what is read through it to a {@link CallMetrics}.
+ *
+ * Time spent moving counts as query time, since that is where the provider fills the cursor window
+ * across processes. Time between moves is the caller decoding the row, less any serialization done
+ * meanwhile. Rows are counted per MIME type on Data queries and per table otherwise.
+ *
+ * Bytes are counted per value read: strings at their UTF-8 length, blobs at their length and numbers
+ * at eight bytes. This estimates the data decoded, not the memory the cursor window actually uses.
+ */
+final class MeasuredCursor extends CursorWrapper {
+
+    private final CallMetrics metrics;
+    private final String table;
+    private final int mimeTypeIndex;
+    private boolean inRow;
+    private long rowStartNanos;
+    private long rowStartSerializeNanos;
+
+    private MeasuredCursor(Cursor cursor, CallMetrics metrics, String table) {
+        super(cursor);
+        this.metrics = metrics;
+        this.table = table;
+        this.mimeTypeIndex = cursor.getColumnIndex(ContactsContract.Data.MIMETYPE);
+    }
+
+    /**
+     * {@link ContentResolver#query} that is measured when the calling thread records a call, and
+     * cancelled with the call when it has a {@link CallCancellation} signal.
+     */
+    static Cursor query(
+        ContentResolver resolver,
+        Uri uri,
+        String[] projection,
+        String selection,
+        String[] selectionArgs,
+        String sortOrder
+    ) {
+        CallMetrics metrics = CallMetrics.current();
+        CancellationSignal signal = CallCancellation.current();
+        if (metrics == null) {
+            return resolver.query(uri, projection, selection, selectionArgs, sortOrder, signal);
+        }
+
+        long start = System.nanoTime();
+        Cursor cursor = resolver.query(uri, projection, selection, selectionArgs, sortOrder, signal);
+        metrics.recordQuery(System.nanoTime() - start);
+        return cursor != null ? new MeasuredCursor(cursor, metrics, tableOf(uri)) : null;
+    }
+
+    @Override
+    public boolean moveToNext() {
+        long start = beginMove();
+        return endMove(super.moveToNext(), start);
+    }
+
+    @Override
+    public boolean moveToFirst() {
+        long start = beginMove();
+        return endMove(super.moveToFirst(), start);
+    }
+
+    @Override
+    public boolean moveToPosition(int position) {
+        long start = beginMove();
+        return endMove(super.moveToPosition(position), start);
+    }
+
+    @Override
+    public boolean move(int offset) {
+        long start = beginMove();
+        return endMove(super.move(offset), start);
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+        String value = super.getString(columnIndex);
+        if (value != null) {
+            metrics.cursorBytes.add(CallMetrics.utf8Length(value));
+        }
+        return value;
+    }
+
+    @Override
+    public byte[] getBlob(int columnIndex) {
+        byte[] value = super.getBlob(columnIndex);
+        if (value != null) {
+            metrics.cursorBytes.add(value.length);
+        }
+        return value;
+    }
+
+    @Override
+    public int getInt(int columnIndex) {
+        metrics.cursorBytes.add(Long.BYTES);
+        return super.getInt(columnIndex);
+    }
+
+    @Override
+    public long getLong(int columnIndex) {
+        metrics.cursorBytes.add(Long.BYTES);
+        return super.getLong(columnIndex);
+    }
+
+    @Override
+    public void close() {
+        if (inRow) {
+            endRow(System.nanoTime());
+        }
+        super.close();
+    }
+
+    private long beginMove() {
+        long now = System.nanoTime();
+        if (inRow) {
+            endRow(now);
+        }
+        return now;
+    }
+
+    private boolean endMove(boolean moved, long start) {
+        metrics.queryNanos.add(System.nanoTime() - start);
+        if (moved) {
+            metrics.recordRow(mimeTypeIndex >= 0 ? kindOf(super.getString(mimeTypeIndex)) : table);
+            inRow = true;
+            rowStartSerializeNanos = metrics.serializeNanos.sum();
+            rowStartNanos = System.nanoTime();
+        }
+        return moved;
+    }
+
+    private void endRow(long now) {
+        long serialized = metrics.serializeNanos.sum() - rowStartSerializeNanos;
+        metrics.decodeNanos.add(Math.max(0, now - rowStartNanos - serialized));
+        inRow = false;
+    }
+
+    private static String kindOf(String mimeType) {
+        if (mimeType == null) {
+            return "unknown";
+        }
+        return mimeType.substring(mimeType.lastIndexOf('/') + 1);
+    }
+
+    private static String tableOf(Uri uri) {
+        List<String> segments = uri.getPathSegments();
+        return segments.isEmpty() ? uri.getAuthority() : segments.get(0);
+    }
+}
@@ -0,0 +1,99 @@
+package app.capgo.contacts;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Position in the (display name, contact id) order that a page of contacts ended at.
+ *
+ * The next page selects the rows strictly after it instead of skipping an offset, so the provider can
+ * seek straight to it and contacts added or removed before it do not shift the pages that follow.
+ * It is handed to JS as an opaque string: the hex digits of its UTF-8 JSON.
+ */
+final class PageToken {
+
+    private static final String KEY_DISPLAY_NAME = "n";
+    private static final String KEY_CONTACT_ID = "i";
+
+    final String displayName;
+    final long contactId;
+
+    private PageToken(String displayName, long contactId) {
+        this.displayName = displayName;
+        this.contactId = contactId;
+    }
+
+    static PageToken after(ContactBuilder last) {
+        return at(last.fullName, Long.parseLong(last.id));
+    }
+
+    static PageToken at(String displayName, long contactId) {
+        return new PageToken(displayName, contactId);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()}
+     */
+    static PageToken decode(String token) {
+        try {
+            String json = new String(fromHex(token), StandardCharsets.UTF_8);
+            JSONObject position = new JSONObject(json);
+            String displayName = position.isNull(KEY_DISPLAY_NAME) ? null : position.getString(KEY_DISPLAY_NAME);
+            return new PageToken(displayName, position.getLong(KEY_CONTACT_ID));
+        } catch (JSONException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid page token.", ex);
+        }
+    }
+
+    String encode() {
+        try {
+            JSONObject position = new JSONObject();
+            position.put(KEY_DISPLAY_NAME, displayName != null ? displayName : JSONObject.NULL);
+            position.put(KEY_CONTACT_ID, contactId);
+            return toHex(position.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Builds the selection of rows after this position, for a query ordered by
+     * {@code nameColumn ASC, idColumn ASC}. Contacts without a display name sort first.
+     */
+    String selection(String nameColumn, String idColumn, List<String> selectionArgs) {
+        if (displayName == null) {
+            selectionArgs.add(String.valueOf(contactId));
+            return "((" + nameColumn + " IS NULL AND " + idColumn + " > ?) OR " + nameColumn + " IS NOT NULL)";
+        }
+        selectionArgs.add(displayName);
+        selectionArgs.add(String.valueOf(contactId));
+        selectionArgs.add(displayName);
+        return "((" + nameColumn + " = ? AND " + idColumn + " > ?) OR " + nameColumn + " > ?)";
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Odd number of hex digits.");
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Not a hex digit.");
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,94 @@
+package app.capgo.contacts;
+
+import com.getcapacitor.JSObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals of the {@link CallMetrics} of every instrumented call since the last reset, per plugin method.
+ */
+final class PerformanceMetrics {
+
+    private final Map<String, Totals> methods = new TreeMap<>();
+
+    synchronized void record(CallMetrics call) {
+        Totals totals = methods.get(call.method);
+        if (totals == null) {
+            totals = new Totals();
+            methods.put(call.method, totals);
+        }
+        totals.add(call);
+    }
+
+    synchronized JSObject snapshot(boolean reset) {
+        JSObject byMethod = new JSObject();
+        for (Map.Entry<String, Totals> entry : methods.entrySet()) {
+            byMethod.put(entry.getKey(), entry.getValue().toJSObject());
+        }
+        if (reset) {
+            methods.clear();
+        }
+
+        JSObject result = new JSObject();
+        result.put("enabled", true);
+        result.put("methods", byMethod);
+        return result;
+    }
+
+    private static final class Totals {
+
+        long calls;
+        long queries;
+        long cursorBytes;
+        long payloadBytes;
+        long waitNanos;
+        long queryNanos;
+        long decodeNanos;
+        long serializeNanos;
+        long totalNanos;
+        long maxTotalNanos;
+        final Map<String, Long> rows = new HashMap<>();
+
+        void add(CallMetrics call) {
+            calls++;
+            queries += call.queries.sum();
+            cursorBytes += call.cursorBytes.sum();
+            payloadBytes += call.payloadBytes.sum();
+            waitNanos += call.waitNanos;
+            queryNanos += call.queryNanos.sum();
+            decodeNanos += call.decodeNanos.sum();
+            serializeNanos += call.serializeNanos.sum();
+            totalNanos += call.totalNanos;
+            maxTotalNanos = Math.max(maxTotalNanos, call.totalNanos);
+            for (Map.Entry<String, LongAdder> entry : call.rows.entrySet()) {
+                rows.merge(entry.getKey(), entry.getValue().sum(), Long::sum);
+            }
+        }
+
+        JSObject toJSObject() {
+            JSObject rowsByKind = new JSObject();
+            long rowsScanned = 0;
+            for (Map.Entry<String, Long> entry : rows.entrySet()) {
+                rowsByKind.put(entry.getKey(), entry.getValue());
+                rowsScanned += entry.getValue();
+            }
+
+            JSObject result = new JSObject();
+            result.put("calls", calls);
+            result.put("queries", queries);
+            result.put("rowsScanned", rowsScanned);
+            result.put("rowsByMimeType", rowsByKind);
+            result.put("cursorBytes", cursorBytes);
+            result.put("payloadBytes", payloadBytes);
+            result.put("waitMs", CallMetrics.toMillis(waitNanos));
+            result.put("queryMs", CallMetrics.toMillis(queryNanos));
+            result.put("decodeMs", CallMetrics.toMillis(decodeNanos));
+            result.put("serializeMs", CallMetrics.toMillis(serializeNanos));
+            result.put("totalMs", CallMetrics.toMillis(totalNanos));
+            result.put("maxTotalMs", CallMetrics.toMillis(maxTotalNanos));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package app.capgo.contacts;
+
+import com.getcapacitor.JSObject;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU of phone number lookups, keyed by normalized number.
+ *
+ * Numbers without a matching contact are cached too, since they are the common case for caller-ID
+ * style lookups. The whole cache is dropped on any address book change because a single edit can
+ * add or remove a match for any number.
+ */
+final class PhoneLookupCache {
+
+    /** Cached result of a number that matches no contact. */
+    static final JSObject NO_MATCH = new JSObject();
+
+    private final Map<String, JSObject> entries;
+
+    PhoneLookupCache(int maxSize) {
+        entries = new LinkedHashMap<String, JSObject>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JSObject> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the cached match, {@link #NO_MATCH}, or {@code null} if the number was not looked up yet
+     */
+    synchronized JSObject get(String normalizedNumber) {
+        return entries.get(normalizedNumber);
+    }
+
+    synchronized void put(String normalizedNumber, JSObject match) {
+        entries.put(normalizedNumber, match != null ? match : NO_MATCH);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package app.capgo.contacts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces identical reads that are in flight at the same time.
+ *
+ * The first caller for a key runs the read; callers arriving with the same key before it finishes
+ * are queued as followers instead of being scheduled, and receive the leader's result when it
+ * completes. Followers therefore never hold a read thread while they wait.
+ */
+final class SingleFlight {
+
+    interface Callback<T> {
+        /**
+         * Receives either the shared result or the error that ended the read; exactly one is set.
+         */
+        void onComplete(T value, Exception error);
+    }
+
+    private final Map<String, List<Callback<?>>> inFlight = new HashMap<>();
+
+    /**
+     * @return {@code true} if the caller leads the read of {@code key} and must end it with
+     *     {@link #complete}, {@code false} if {@code callback} was queued behind a read already in flight
+     */
+    synchronized boolean join(String key, Callback<?> callback) {
+        List<Callback<?>> followers = inFlight.get(key);
+        if (followers == null) {
+            inFlight.put(key, new ArrayList<>());
+            return true;
+        }
+        followers.add(callback);
+        return false;
+    }
+
+    /**
+     * Ends the read of {@code key} and hands its outcome to every follower that joined it.
+     */
+    @SuppressWarnings("unchecked")
+    <T> void complete(String key, T value, Exception error) {
+        List<Callback<?>> followers;
+        synchronized (this) {
+            followers = inFlight.remove(key);
+        }
+        if (followers == null) {
+            return;
+        }
+        for (Callback<?> follower : followers) {
+            ((Callback<T>) follower).onComplete(value, error);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package app.capgo.contacts;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+
+public class ChunkedBatchTest {
+
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final Set<Integer> failingSizes = new HashSet<>();
+
+    // Each item is its operation count; a negative count appends that many operations, then fails
+    private final ChunkedBatch.OperationBuilder<Integer> builder = (ops, count) -> {
+        for (int i = 0; i < Math.abs(count); i++) {
+            ops.add(null);
+        }
+        if (count < 0) {
+            throw new IllegalStateException("Bad item.");
+        }
+    };
+
+    // Labels each result with its batch and operation index
+    private final ChunkedBatch.Applier<String> applier = (ops) -> {
+        int batch = batchSizes.size();
+        batchSizes.add(ops.size());
+        if (failingSizes.contains(ops.size())) {
+            throw new IllegalStateException("Batch of " + ops.size() + " failed.");
+        }
+        String[] results = new String[ops.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = "b" + batch + ":" + i;
+        }
+        return results;
+    };
+
+    private String[] results;
+    private String[] errors;
+
+    private void apply(Integer... items) {
+        results = new String[items.length];
+        errors = new String[items.length];
+        ChunkedBatch.apply(Arrays.asList(items), builder, applier, results, errors);
+    }
+
+    @Test
+    public void appliesSmallImportInOneBatch() {
+        apply(2, 3, 1);
+
+        assertEquals(Arrays.asList(6), batchSizes);
+        assertArrayEquals(new String[] { "b0:0", "b0:2", "b0:5" }, results);
+        assertArrayEquals(new String[3], errors);
+    }
+
+    @Test
+    public void splitsAtOperationLimit() {
+        apply(300, 300, 50);
+
+        assertEquals(Arrays.asList(300, 350), batchSizes);
+        assertArrayEquals(new String[] { "b0:0", "b1:0", "b1:300" }, results);
+    }
+
+    @Test
+    public void replaysFailedChunkItemByItem() {
+        failingSizes.add(6);
+        failingSizes.add(2);
+
+        apply(1, 2, 3);
+
+        assertEquals(Arrays.asList(6, 1, 2, 3), batchSizes);
+        assertArrayEquals(new String[] { "b1:0", null, "b3:0" }, results);
+        assertNull(errors[0]);
+        assertEquals("Batch of 2 failed.", errors[1]);
+        assertNull(errors[2]);
+    }
+
+    @Test
+    public void doesNotReplaySingleItemChunk() {
+        failingSizes.add(3);
+
+        apply(3);
+
+        assertEquals(Arrays.asList(3), batchSizes);
+        assertNull(results[0]);
+        assertEquals("Batch of 3 failed.", errors[0]);
+    }
+
+    @Test
+    public void skipsItemWhoseOperationsFailToBuild() {
+        apply(2, -1, 1);
+
+        assertEquals(Arrays.asList(3), batchSizes);
+        assertArrayEquals(new String[] { "b0:0", null, "b0:2" }, results);
+        assertEquals("Bad item.", errors[1]);
+    }
+
+    @Test
+    public void leavesItemWithNothingToWriteOutOfTheBatch() {
+        apply(2, 0, 1);
+
+        assertEquals(Arrays.asList(3), batchSizes);
+        assertArrayEquals(new String[] { "b0:0", null, "b0:2" }, results);
+        assertArrayEquals(new String[3], errors);
+    }
+}
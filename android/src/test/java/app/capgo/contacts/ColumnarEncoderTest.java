@@ -0,0 +1,107 @@
+package app.capgo.contacts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.provider.ContactsContract.CommonDataKinds;
+import com.getcapacitor.JSObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class ColumnarEncoderTest {
+
+    @Test
+    public void listColumnsUseOffsetsPerContact() throws Exception {
+        ContactBuilder first = new ContactBuilder("1");
+        first.addPhone("555-0100", CommonDataKinds.Phone.TYPE_MOBILE, null, true);
+        first.addPhone("555-0101", CommonDataKinds.Phone.TYPE_WORK, null, false);
+        ContactBuilder second = new ContactBuilder("2");
+        ContactBuilder third = new ContactBuilder("3");
+        third.addPhone("555-0300", CommonDataKinds.Phone.TYPE_MOBILE, null, false);
+
+        JSObject result = ColumnarEncoder.encode(Arrays.asList(first, second, third), Collections.singleton("phoneNumbers"));
+        JSONObject phones = (JSONObject) column(result, "phoneNumbers");
+        JSONArray values = phones.getJSONArray("columns");
+
+        assertEquals(3, result.getInt("count"));
+        assertEquals("[0,2,2,3]", phones.getJSONArray("offsets").toString());
+        assertEquals("[\"value\",\"type\",\"label\",\"isPrimary\"]", phones.getJSONArray("fields").toString());
+        assertEquals("[\"555-0100\",\"555-0101\",\"555-0300\"]", values.getJSONArray(0).toString());
+        assertEquals("[1,0,0]", values.getJSONArray(3).toString());
+    }
+
+    @Test
+    public void typeNamesAreSharedLabels() throws Exception {
+        ContactBuilder first = new ContactBuilder("1");
+        first.addPhone("555-0100", CommonDataKinds.Phone.TYPE_MOBILE, null, false);
+        first.addEmail("a@example.com", CommonDataKinds.Email.TYPE_WORK, null, false);
+        ContactBuilder second = new ContactBuilder("2");
+        second.addPhone("555-0200", CommonDataKinds.Phone.TYPE_MOBILE, null, false);
+
+        JSObject result = ColumnarEncoder.encode(
+            Arrays.asList(first, second),
+            new HashSet<>(Arrays.asList("phoneNumbers", "emailAddresses"))
+        );
+        JSONArray labels = result.getJSONArray("labels");
+        JSONArray emailTypes = ((JSONObject) column(result, "emailAddresses")).getJSONArray("columns").getJSONArray(1);
+        JSONArray phoneTypes = ((JSONObject) column(result, "phoneNumbers")).getJSONArray("columns").getJSONArray(1);
+
+        assertEquals("[\"WORK\",\"MOBILE\"]", labels.toString());
+        assertEquals("[0]", emailTypes.toString());
+        assertEquals("[1,1]", phoneTypes.toString());
+    }
+
+    @Test
+    public void absentAccountIsNull() throws Exception {
+        ContactBuilder withAccount = new ContactBuilder("1");
+        withAccount.accountName = "me@example.com";
+        withAccount.accountType = "com.google";
+        ContactBuilder local = new ContactBuilder("2");
+
+        JSObject result = ColumnarEncoder.encode(Arrays.asList(withAccount, local), Collections.singleton("account"));
+        JSONArray names = (JSONArray) column(result, "account.name");
+        JSONArray types = (JSONArray) column(result, "account.type");
+
+        // decodeColumnarContacts skips null values, so the local contact gets no account, as in object format
+        assertEquals("me@example.com", names.get(0));
+        assertEquals(JSONObject.NULL, names.get(1));
+        assertEquals(JSONObject.NULL, types.get(1));
+        assertFalse(local.toJSObject(Collections.singleton("account")).has("account"));
+    }
+
+    @Test
+    public void photoIncludesContactId() throws Exception {
+        List<ContactBuilder> builders = Collections.singletonList(new ContactBuilder("7"));
+
+        JSObject result = ColumnarEncoder.encode(builders, Collections.singleton("photo"));
+
+        assertEquals("[\"id\",\"photo\",\"photoHandle.version\"]", result.getJSONArray("fields").toString());
+        assertEquals("7", ((JSONArray) column(result, "id")).get(0));
+    }
+
+    @Test
+    public void allFieldsWithoutFilter() throws Exception {
+        JSObject result = ColumnarEncoder.encode(Collections.singletonList(new ContactBuilder("1")), null);
+        JSONArray fields = result.getJSONArray("fields");
+
+        assertEquals(fields.length(), result.getJSONArray("columns").length());
+        assertTrue(fields.toString().contains("\"postalAddresses\""));
+        assertTrue(fields.toString().contains("\"groupIds\""));
+    }
+
+    private static Object column(JSObject result, String field) throws Exception {
+        JSONArray fields = result.getJSONArray("fields");
+        for (int i = 0; i < fields.length(); i++) {
+            if (field.equals(fields.getString(i))) {
+                return result.getJSONArray("columns").get(i);
+            }
+        }
+        throw new AssertionError("No column " + field);
+    }
+}
@@ -0,0 +1,104 @@
+package app.capgo.contacts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class ContactCacheTest {
+
+    private static final Set<String> NAME = Collections.singleton("fullName");
+
+    private final ContactCache cache = new ContactCache(10);
+
+    @Test
+    public void evictsLeastRecentlyUsedByWeight() {
+        cache.put("a", "A", 4, cache.generation());
+        cache.put("b", "B", 4, cache.generation());
+        // Touch a so b is the eldest
+        cache.get("a");
+        cache.put("c", "C", 4, cache.generation());
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+    }
+
+    @Test
+    public void evictsAsManyEntriesAsTheWeightNeeds() {
+        cache.put("a", "A", 3, cache.generation());
+        cache.put("b", "B", 3, cache.generation());
+        cache.put("c", "C", 3, cache.generation());
+        cache.put("list", "L", 9, cache.generation());
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNull(cache.get("c"));
+        assertEquals("L", cache.get("list"));
+    }
+
+    @Test
+    public void skipsEntryHeavierThanCache() {
+        cache.put("a", "A", 4, cache.generation());
+        cache.put("huge", "H", 11, cache.generation());
+
+        assertNull(cache.get("huge"));
+        assertEquals("A", cache.get("a"));
+    }
+
+    @Test
+    public void replacingEntryReleasesItsWeight() {
+        cache.put("a", "A1", 6, cache.generation());
+        cache.put("a", "A2", 6, cache.generation());
+        cache.put("b", "B", 4, cache.generation());
+
+        assertEquals("A2", cache.get("a"));
+        assertEquals("B", cache.get("b"));
+    }
+
+    @Test
+    public void dropsReadStartedBeforeInvalidation() {
+        String key = ContactCache.contactKey("1", NAME);
+        long generation = cache.generation();
+        cache.invalidateContact("1");
+        cache.put(key, "stale", 1, generation);
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void dropsReadStartedBeforeClear() {
+        long generation = cache.generation();
+        cache.clear();
+        cache.put(ContactCache.COUNT_KEY, 3, 1, generation);
+
+        assertNull(cache.get(ContactCache.COUNT_KEY));
+    }
+
+    @Test
+    public void invalidationKeepsOtherContacts() {
+        String kept = ContactCache.contactKey("2", NAME);
+        String list = ContactCache.listKey(10, null, null, NAME, false);
+        cache.put(ContactCache.contactKey("1", NAME), "one", 1, cache.generation());
+        cache.put(kept, "two", 1, cache.generation());
+        cache.put(list, "list", 2, cache.generation());
+
+        cache.invalidateContact("1");
+
+        assertNull(cache.get(ContactCache.contactKey("1", NAME)));
+        assertNull(cache.get(list));
+        assertEquals("two", cache.get(kept));
+    }
+
+    @Test
+    public void fieldOrderDoesNotChangeKeys() {
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList("phoneNumbers", "fullName"));
+        Set<String> reversed = new LinkedHashSet<>(Arrays.asList("fullName", "phoneNumbers"));
+
+        assertEquals(ContactCache.contactKey("1", fields), ContactCache.contactKey("1", reversed));
+    }
+}
@@ -0,0 +1,113 @@
+package app.capgo.contacts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.provider.ContactsContract;
+import android.provider.ContactsContract.CommonDataKinds.Email;
+import android.provider.ContactsContract.CommonDataKinds.Event;
+import android.provider.ContactsContract.CommonDataKinds.Phone;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ContactRowDiffTest {
+
+    private static Map<String, String> values(String mimeType, String... columnsAndValues) {
+        Map<String, String> values = new HashMap<>();
+        values.put(ContactsContract.Data.MIMETYPE, mimeType);
+        for (int i = 0; i < columnsAndValues.length; i += 2) {
+            values.put(columnsAndValues[i], columnsAndValues[i + 1]);
+        }
+        return values;
+    }
+
+    private static ContactRowDiff.Row row(String id, Map<String, String> values) {
+        return new ContactRowDiff.Row(id, values.get(ContactsContract.Data.MIMETYPE), values);
+    }
+
+    private static Map<String, String> phone(String number, String type) {
+        return values(Phone.CONTENT_ITEM_TYPE, Phone.NUMBER, number, Phone.TYPE, type);
+    }
+
+    @Test
+    public void unchangedRowsNeedNoWrites() {
+        List<ContactRowDiff.Row> existing = Arrays.asList(row("1", phone("111", "2")), row("2", phone("222", "1")));
+
+        List<ContactRowDiff.Change> changes = ContactRowDiff.diff(existing, Arrays.asList(phone("111", "2"), phone("222", "1")));
+
+        assertEquals(0, changes.size());
+    }
+
+    @Test
+    public void rowIsClaimedBySameValueBeforeOrder() {
+        ContactRowDiff.Row first = row("1", phone("111", "2"));
+        ContactRowDiff.Row second = row("2", phone("222", "1"));
+
+        // Same numbers in the other order, one with a new type
+        List<ContactRowDiff.Change> changes = ContactRowDiff.diff(
+            Arrays.asList(first, second),
+            Arrays.asList(phone("222", "3"), phone("111", "2"))
+        );
+
+        assertEquals(1, changes.size());
+        assertSame(second, changes.get(0).existing);
+        assertEquals(0, changes.get(0).desired);
+    }
+
+    @Test
+    public void editedValueUpdatesLeftoverRow() {
+        ContactRowDiff.Row existing = row("1", phone("111", "2"));
+
+        List<ContactRowDiff.Change> changes = ContactRowDiff.diff(Collections.singletonList(existing), Arrays.asList(phone("333", "2")));
+
+        assertEquals(1, changes.size());
+        assertSame(existing, changes.get(0).existing);
+        assertEquals(0, changes.get(0).desired);
+    }
+
+    @Test
+    public void unclaimedRowsAreInsertedAndDeleted() {
+        ContactRowDiff.Row phoneRow = row("1", phone("111", "2"));
+        ContactRowDiff.Row emailRow = row("2", values(Email.CONTENT_ITEM_TYPE, Email.ADDRESS, "a@example.com"));
+
+        List<ContactRowDiff.Change> changes = ContactRowDiff.diff(
+            Arrays.asList(phoneRow, emailRow),
+            Arrays.asList(phone("111", "2"), phone("222", "1"))
+        );
+
+        // Changes follow MANAGED_MIME_TYPES, where emails come before phones
+        assertEquals(2, changes.size());
+        assertSame(emailRow, changes.get(0).existing);
+        assertEquals(-1, changes.get(0).desired);
+        assertNull(changes.get(1).existing);
+        assertEquals(1, changes.get(1).desired);
+    }
+
+    @Test
+    public void nullAndEmptyValuesMatch() {
+        Map<String, String> stored = phone("111", "0");
+        stored.put(Phone.LABEL, null);
+        Map<String, String> wanted = phone("111", "0");
+        wanted.put(Phone.LABEL, "");
+
+        List<ContactRowDiff.Change> changes = ContactRowDiff.diff(Collections.singletonList(row("1", stored)), Arrays.asList(wanted));
+
+        assertEquals(0, changes.size());
+    }
+
+    @Test
+    public void unmanagedRowsAreKept() {
+        List<ContactRowDiff.Row> existing = new ArrayList<>();
+        existing.add(row("1", values(Event.CONTENT_ITEM_TYPE, Event.START_DATE, "2000-01-01")));
+
+        List<ContactRowDiff.Change> changes = ContactRowDiff.diff(existing, Collections.<Map<String, String>>emptyList());
+
+        assertEquals(0, changes.size());
+    }
+}
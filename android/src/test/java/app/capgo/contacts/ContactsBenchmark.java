@@ -0,0 +1,273 @@
+package app.capgo.contacts;
+
+import android.provider.ContactsContract;
+import android.provider.ContactsContract.CommonDataKinds;
+import com.getcapacitor.JSArray;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of the contact read hot path against a synthetic Data table.
+ *
+ * Except for {@code getMimeTypesForFields}, one operation is a full pass over {@code contacts}
+ * contacts; {@link ContactsBenchmarkMain} divides the results down to a per-contact figure.
+ * Run with {@code ./gradlew benchmark}.
+ *
+ * Framework classes are only stubs on the JVM, so the rows come from a {@link FakeCursor} and photos
+ * are read as handles, which keeps the decoding away from {@code android.util.Base64}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Dataset {
+
+        @Param({ "1000", "10000", "50000" })
+        public int contacts;
+
+        DataProjection projection;
+        FakeCursor cursor;
+        List<ContactBuilder> builders;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            projection = DataProjection.forFields(null, true, true);
+            cursor = new FakeCursor(projection.columns, buildRows(projection.columns, contacts));
+            builders = new ArrayList<>(contacts);
+            ContactRowReader.readJoined(cursor, projection, true, 0, builders::add);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fields {
+
+        final Set<String> fields = new HashSet<>(Arrays.asList("fullName", "phoneNumbers", "emailAddresses", "photo"));
+    }
+
+    @Benchmark
+    public void processDataRow(Dataset dataset, Blackhole blackhole) {
+        FakeCursor cursor = dataset.cursor;
+        cursor.moveToPosition(-1);
+        DataProjection.ColumnIndex columns = dataset.projection.resolve(cursor);
+        ContactBuilder builder = null;
+
+        while (cursor.moveToNext()) {
+            String contactId = cursor.getString(columns.contactId);
+            if (builder == null || !builder.id.equals(contactId)) {
+                blackhole.consume(builder);
+                builder = new ContactBuilder(contactId);
+            }
+            ContactRowReader.readRow(builder, cursor, columns);
+        }
+        blackhole.consume(builder);
+    }
+
+    @Benchmark
+    public void toJSObject(Dataset dataset, Blackhole blackhole) {
+        for (ContactBuilder builder : dataset.builders) {
+            blackhole.consume(builder.toJSObject(null));
+        }
+    }
+
+    @Benchmark
+    public List<String> getMimeTypesForFields(Fields fields) {
+        return DataProjection.getMimeTypesForFields(fields.fields);
+    }
+
+    /**
+     * Everything {@code getContacts()} does for a full list once the provider cursor is open:
+     * walk the joined rows, decode them and serialize every contact.
+     */
+    @Benchmark
+    public JSArray fetchContacts(Dataset dataset) {
+        FakeCursor cursor = dataset.cursor;
+        cursor.moveToPosition(-1);
+        JSArray contacts = new JSArray();
+        ContactRowReader.readJoined(cursor, dataset.projection, true, 0, (builder) -> contacts.put(builder.toJSObject(null)));
+        return contacts;
+    }
+
+    /**
+     * Builds Data rows for {@code count} contacts, sorted the way the provider returns them. Every
+     * contact has a name, two phones, an email and a group; some also have an organization,
+     * address, website, birthday or photo, to mix the decoding paths.
+     */
+    static List<Object[]> buildRows(String[] columns, int count) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            indices.put(columns[i], i);
+        }
+
+        List<Object[]> rows = new ArrayList<>(count * 8);
+        for (int i = 0; i < count; i++) {
+            String contactId = String.valueOf(i + 1);
+            String displayName = String.format("Contact %06d", i);
+            RowFactory factory = new RowFactory(indices, columns.length, contactId, displayName);
+
+            rows.add(
+                factory.row(
+                    CommonDataKinds.StructuredName.CONTENT_ITEM_TYPE,
+                    CommonDataKinds.StructuredName.GIVEN_NAME,
+                    "Given" + i,
+                    CommonDataKinds.StructuredName.FAMILY_NAME,
+                    "Family" + i
+                )
+            );
+            rows.add(
+                factory.row(
+                    CommonDataKinds.Phone.CONTENT_ITEM_TYPE,
+                    CommonDataKinds.Phone.NUMBER,
+                    String.format("+1555%07d", i),
+                    CommonDataKinds.Phone.TYPE,
+                    CommonDataKinds.Phone.TYPE_MOBILE,
+                    ContactsContract.Data.IS_PRIMARY,
+                    1
+                )
+            );
+            rows.add(
+                factory.row(
+                    CommonDataKinds.Phone.CONTENT_ITEM_TYPE,
+                    CommonDataKinds.Phone.NUMBER,
+                    String.format("+1444%07d", i),
+                    CommonDataKinds.Phone.TYPE,
+                    CommonDataKinds.Phone.TYPE_WORK,
+                    ContactsContract.Data.IS_PRIMARY,
+                    0
+                )
+            );
+            rows.add(
+                factory.row(
+                    CommonDataKinds.Email.CONTENT_ITEM_TYPE,
+                    CommonDataKinds.Email.ADDRESS,
+                    "contact" + i + "@example.com",
+                    CommonDataKinds.Email.TYPE,
+                    CommonDataKinds.Email.TYPE_HOME,
+                    ContactsContract.Data.IS_PRIMARY,
+                    0
+                )
+            );
+            rows.add(
+                factory.row(CommonDataKinds.GroupMembership.CONTENT_ITEM_TYPE, CommonDataKinds.GroupMembership.GROUP_ROW_ID, 1L)
+            );
+            if (i % 2 == 0) {
+                rows.add(
+                    factory.row(
+                        CommonDataKinds.Organization.CONTENT_ITEM_TYPE,
+                        CommonDataKinds.Organization.COMPANY,
+                        "Company " + (i % 100),
+                        CommonDataKinds.Organization.TITLE,
+                        "Engineer"
+                    )
+                );
+            }
+            if (i % 3 == 0) {
+                rows.add(
+                    factory.row(
+                        CommonDataKinds.StructuredPostal.CONTENT_ITEM_TYPE,
+                        CommonDataKinds.StructuredPostal.STREET,
+                        i + " Main Street",
+                        CommonDataKinds.StructuredPostal.CITY,
+                        "Springfield",
+                        CommonDataKinds.StructuredPostal.POSTCODE,
+                        "12345",
+                        CommonDataKinds.StructuredPostal.TYPE,
+                        CommonDataKinds.StructuredPostal.TYPE_HOME
+                    )
+                );
+                rows.add(
+                    factory.row(
+                        CommonDataKinds.Photo.CONTENT_ITEM_TYPE,
+                        ContactsContract.Data._ID,
+                        (long) i,
+                        ContactsContract.Data.DATA_VERSION,
+                        1
+                    )
+                );
+            }
+            if (i % 4 == 0) {
+                rows.add(
+                    factory.row(
+                        CommonDataKinds.Event.CONTENT_ITEM_TYPE,
+                        CommonDataKinds.Event.TYPE,
+                        CommonDataKinds.Event.TYPE_BIRTHDAY,
+                        CommonDataKinds.Event.START_DATE,
+                        "1990-01-15"
+                    )
+                );
+            }
+            if (i % 5 == 0) {
+                rows.add(
+                    factory.row(
+                        CommonDataKinds.Website.CONTENT_ITEM_TYPE,
+                        CommonDataKinds.Website.URL,
+                        "https://example.com/" + i,
+                        CommonDataKinds.Website.TYPE,
+                        CommonDataKinds.Website.TYPE_HOMEPAGE
+                    )
+                );
+            }
+        }
+        return rows;
+    }
+
+    private static final class RowFactory {
+
+        private final Map<String, Integer> indices;
+        private final int width;
+        private final String contactId;
+        private final String displayName;
+
+        RowFactory(Map<String, Integer> indices, int width, String contactId, String displayName) {
+            this.indices = indices;
+            this.width = width;
+            this.contactId = contactId;
+            this.displayName = displayName;
+        }
+
+        /**
+         * @param values alternating column names and values
+         */
+        Object[] row(String mimeType, Object... values) {
+            Object[] row = new Object[width];
+            set(row, ContactsContract.Data.CONTACT_ID, contactId);
+            set(row, ContactsContract.Data.MIMETYPE, mimeType);
+            set(row, ContactsContract.Data.DISPLAY_NAME_PRIMARY, displayName);
+            set(row, ContactsContract.RawContacts.ACCOUNT_NAME, "user@example.com");
+            set(row, ContactsContract.RawContacts.ACCOUNT_TYPE, "com.google");
+            for (int i = 0; i < values.length; i += 2) {
+                set(row, (String) values[i], values[i + 1]);
+            }
+            return row;
+        }
+
+        private void set(Object[] row, String column, Object value) {
+            Integer index = indices.get(column);
+            if (index != null) {
+                row[index] = value;
+            }
+        }
+    }
+}
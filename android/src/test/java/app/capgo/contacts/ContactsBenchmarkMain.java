@@ -0,0 +1,48 @@
+package app.capgo.contacts;
+
+import java.util.Collection;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link ContactsBenchmark} with the GC profiler and prints throughput and allocation per
+ * contact. An optional argument restricts the run to matching benchmark methods, e.g.
+ * {@code ./gradlew benchmark --args=fetchContacts}.
+ */
+public final class ContactsBenchmarkMain {
+
+    private ContactsBenchmarkMain() {}
+
+    public static void main(String[] args) throws RunnerException {
+        String methods = args.length > 0 ? args[0] : "";
+        Options options = new OptionsBuilder()
+            .include(ContactsBenchmark.class.getName() + "." + methods)
+            .addProfiler(GCProfiler.class)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        System.out.println();
+        System.out.printf("%-24s %10s %16s %16s%n", "Benchmark", "Contacts", "Contacts/s", "Bytes/contact");
+        for (RunResult result : results) {
+            String contacts = result.getParams().getParam("contacts");
+            if (contacts == null) {
+                continue;
+            }
+            int count = Integer.parseInt(contacts);
+            String benchmark = result.getParams().getBenchmark();
+            Result allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            System.out.printf(
+                "%-24s %10d %16.0f %16.1f%n",
+                benchmark.substring(benchmark.lastIndexOf('.') + 1),
+                count,
+                result.getPrimaryResult().getScore() * count,
+                allocation != null ? allocation.getScore() / count : Double.NaN
+            );
+        }
+    }
+}
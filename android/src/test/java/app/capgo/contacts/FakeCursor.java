@@ -0,0 +1,255 @@
+package app.capgo.contacts;
+
+import android.content.ContentResolver;
+import android.database.CharArrayBuffer;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.database.DataSetObserver;
+import android.net.Uri;
+import android.os.Bundle;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory {@link Cursor} over a fixed list of rows, for running the row decoding on the JVM where
+ * the framework cursors are only stubs.
+ */
+final class FakeCursor implements Cursor {
+
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndices = new HashMap<>();
+    private final List<Object[]> rows;
+    private int position = -1;
+    private boolean closed;
+
+    FakeCursor(String[] columnNames, List<Object[]> rows) {
+        this.columnNames = columnNames;
+        this.rows = rows;
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndices.put(columnNames[i], i);
+        }
+    }
+
+    private Object value(int columnIndex) {
+        return rows.get(position)[columnIndex];
+    }
+
+    @Override
+    public int getCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getPosition() {
+        return position;
+    }
+
+    @Override
+    public boolean move(int offset) {
+        return moveToPosition(position + offset);
+    }
+
+    @Override
+    public boolean moveToPosition(int position) {
+        this.position = Math.max(-1, Math.min(position, rows.size()));
+        return this.position >= 0 && this.position < rows.size();
+    }
+
+    @Override
+    public boolean moveToFirst() {
+        return moveToPosition(0);
+    }
+
+    @Override
+    public boolean moveToLast() {
+        return moveToPosition(rows.size() - 1);
+    }
+
+    @Override
+    public boolean moveToNext() {
+        return moveToPosition(position + 1);
+    }
+
+    @Override
+    public boolean moveToPrevious() {
+        return moveToPosition(position - 1);
+    }
+
+    @Override
+    public boolean isFirst() {
+        return position == 0 && !rows.isEmpty();
+    }
+
+    @Override
+    public boolean isLast() {
+        return position == rows.size() - 1 && !rows.isEmpty();
+    }
+
+    @Override
+    public boolean isBeforeFirst() {
+        return rows.isEmpty() || position == -1;
+    }
+
+    @Override
+    public boolean isAfterLast() {
+        return rows.isEmpty() || position == rows.size();
+    }
+
+    @Override
+    public int getColumnIndex(String columnName) {
+        Integer index = columnIndices.get(columnName);
+        return index != null ? index : -1;
+    }
+
+    @Override
+    public int getColumnIndexOrThrow(String columnName) {
+        int index = getColumnIndex(columnName);
+        if (index < 0) {
+            throw new IllegalArgumentException("column '" + columnName + "' does not exist");
+        }
+        return index;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return columnNames[columnIndex];
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public byte[] getBlob(int columnIndex) {
+        return (byte[]) value(columnIndex);
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+        Object value = value(columnIndex);
+        return value != null ? value.toString() : null;
+    }
+
+    @Override
+    public void copyStringToBuffer(int columnIndex, CharArrayBuffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public short getShort(int columnIndex) {
+        return (short) getLong(columnIndex);
+    }
+
+    @Override
+    public int getInt(int columnIndex) {
+        return (int) getLong(columnIndex);
+    }
+
+    @Override
+    public long getLong(int columnIndex) {
+        Object value = value(columnIndex);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return value != null ? Long.parseLong(value.toString()) : 0;
+    }
+
+    @Override
+    public float getFloat(int columnIndex) {
+        return (float) getDouble(columnIndex);
+    }
+
+    @Override
+    public double getDouble(int columnIndex) {
+        Object value = value(columnIndex);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return value != null ? Double.parseDouble(value.toString()) : 0;
+    }
+
+    @Override
+    public int getType(int columnIndex) {
+        Object value = value(columnIndex);
+        if (value == null) {
+            return FIELD_TYPE_NULL;
+        } else if (value instanceof byte[]) {
+            return FIELD_TYPE_BLOB;
+        } else if (value instanceof Float || value instanceof Double) {
+            return FIELD_TYPE_FLOAT;
+        } else if (value instanceof Number) {
+            return FIELD_TYPE_INTEGER;
+        }
+        return FIELD_TYPE_STRING;
+    }
+
+    @Override
+    public boolean isNull(int columnIndex) {
+        return value(columnIndex) == null;
+    }
+
+    @Override
+    @Deprecated
+    public void deactivate() {}
+
+    @Override
+    @Deprecated
+    public boolean requery() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void registerContentObserver(ContentObserver observer) {}
+
+    @Override
+    public void unregisterContentObserver(ContentObserver observer) {}
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {}
+
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {}
+
+    @Override
+    public void setNotificationUri(ContentResolver resolver, Uri uri) {}
+
+    @Override
+    public Uri getNotificationUri() {
+        return null;
+    }
+
+    @Override
+    public boolean getWantsAllOnMoveCalls() {
+        return false;
+    }
+
+    @Override
+    public void setExtras(Bundle extras) {}
+
+    @Override
+    public Bundle getExtras() {
+        return null;
+    }
+
+    @Override
+    public Bundle respond(Bundle extras) {
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package app.capgo.contacts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class PageTokenTest {
+
+    @Test
+    public void roundTripsPosition() {
+        PageToken token = PageToken.decode(PageToken.at("Zo\u00eb \u00c5dams", 42).encode());
+
+        assertEquals("Zo\u00eb \u00c5dams", token.displayName);
+        assertEquals(42, token.contactId);
+    }
+
+    @Test
+    public void roundTripsNullDisplayName() {
+        PageToken token = PageToken.decode(PageToken.at(null, 7).encode());
+
+        assertNull(token.displayName);
+        assertEquals(7, token.contactId);
+    }
+
+    @Test
+    public void startsAfterLastContactOfPage() {
+        ContactBuilder last = new ContactBuilder("42");
+        last.fullName = "Ada";
+
+        PageToken token = PageToken.after(last);
+
+        assertEquals("Ada", token.displayName);
+        assertEquals(42, token.contactId);
+    }
+
+    @Test
+    public void selectsRowsAfterNamedPosition() {
+        List<String> args = new ArrayList<>();
+
+        String selection = PageToken.at("Bob", 12).selection("name", "id", args);
+
+        assertEquals("((name = ? AND id > ?) OR name > ?)", selection);
+        assertEquals(Arrays.asList("Bob", "12", "Bob"), args);
+    }
+
+    @Test
+    public void selectsRowsAfterUnnamedPosition() {
+        List<String> args = new ArrayList<>();
+
+        String selection = PageToken.at(null, 12).selection("name", "id", args);
+
+        // Unnamed contacts sort first, so every named contact follows
+        assertEquals("((name IS NULL AND id > ?) OR name IS NOT NULL)", selection);
+        assertEquals(Collections.singletonList("12"), args);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedToken() {
+        PageToken.decode("not a token!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTokenWithoutPosition() {
+        // "{}" in hex
+        PageToken.decode("7b7d");
+    }
+}
@@ -0,0 +1,75 @@
+package app.capgo.contacts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+    private final SingleFlight flights = new SingleFlight();
+
+    @Test
+    public void followersReceiveLeaderResult() {
+        List<Object> values = new ArrayList<>();
+        SingleFlight.Callback<String> follower = (value, error) -> {
+            assertNull(error);
+            values.add(value);
+        };
+
+        assertTrue(flights.join("contacts", follower));
+        assertFalse(flights.join("contacts", follower));
+        assertFalse(flights.join("contacts", follower));
+        flights.complete("contacts", "result", null);
+
+        assertEquals(2, values.size());
+        assertEquals("result", values.get(0));
+        assertEquals("result", values.get(1));
+    }
+
+    @Test
+    public void followersReceiveLeaderError() {
+        Exception failure = new IllegalStateException("read failed");
+        List<Exception> errors = new ArrayList<>();
+        SingleFlight.Callback<String> follower = (value, error) -> {
+            assertNull(value);
+            errors.add(error);
+        };
+
+        flights.join("contacts", follower);
+        flights.join("contacts", follower);
+        flights.complete("contacts", null, failure);
+
+        assertEquals(1, errors.size());
+        assertSame(failure, errors.get(0));
+    }
+
+    @Test
+    public void otherKeysLeadTheirOwnRead() {
+        SingleFlight.Callback<String> ignored = (value, error) -> {};
+
+        assertTrue(flights.join("first", ignored));
+        assertTrue(flights.join("second", ignored));
+    }
+
+    @Test
+    public void completedKeyStartsNewRead() {
+        List<String> values = new ArrayList<>();
+        SingleFlight.Callback<String> follower = (value, error) -> values.add(value);
+
+        flights.join("contacts", follower);
+        flights.complete("contacts", "first", null);
+
+        assertTrue(flights.join("contacts", follower));
+        assertFalse(flights.join("contacts", follower));
+        flights.complete("contacts", "second", null);
+
+        assertEquals(1, values.size());
+        assertEquals("second", values.get(0));
+    }
+}
@@ -10,39 +10,67 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
     public let jsName = "CapacitorContacts"
     public let pluginMethods: [CAPPluginMethod] = [
         CAPPluginMethod(name: "countContacts", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getSectionIndex", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "createContact", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "createContacts", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "createGroup", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "deleteContactById", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "deleteContacts", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "deleteGroupById", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "displayContactById", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "displayCreateContact", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "displayUpdateContactById", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "getAccounts", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getChangedContacts", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "getContactById", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getContactsByIds", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getContactPhoto", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "getContacts", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "getGroupById", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "getGroups", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getContactsInGroup", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "isAvailable", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "isSupported", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "lookupPhoneNumbers", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "openSettings", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "pickContact", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "pickContacts", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "searchContacts", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "streamContacts", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "updateContactById", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "updateContacts", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "checkPermissions", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "requestPermissions", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getCacheStats", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getPerformanceMetrics", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "cancel", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "getPluginVersion", returnType: CAPPluginReturnPromise)
     ]
 
     private let contactStore = CNContactStore()
+    private let streamPageSize = 50
+    private let bulkChunkSize = 100
 
     // MARK: - Implemented API surface
 
     @objc func countContacts(_ call: CAPPluginCall) {
         ensureAuthorized(call) {
             do {
+                let hasPhoneNumber = call.getBool("hasPhoneNumber")
+                var keys: [CNKeyDescriptor] = [CNContactIdentifierKey as CNKeyDescriptor]
+                if hasPhoneNumber != nil {
+                    keys.append(CNContactPhoneNumbersKey as CNKeyDescriptor)
+                }
+                let request = CNContactFetchRequest(keysToFetch: keys)
+                if let groupId = call.getString("groupId") {
+                    request.predicate = CNContact.predicateForContactsInGroup(withIdentifier: groupId)
+                }
+
                 var count = 0
-                let request = CNContactFetchRequest(keysToFetch: [CNContactIdentifierKey as CNKeyDescriptor])
-                try self.contactStore.enumerateContacts(with: request) { _, _ in
+                try self.contactStore.enumerateContacts(with: request) { contact, _ in
+                    if let hasPhoneNumber = hasPhoneNumber, contact.phoneNumbers.isEmpty == hasPhoneNumber {
+                        return
+                    }
                     count += 1
                 }
                 call.resolve(["count": count])
@@ -93,6 +121,169 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
         }
     }
 
+    @objc func searchContacts(_ call: CAPPluginCall) {
+        guard let query = call.options["query"] as? String else {
+            call.reject("Missing search query.")
+            return
+        }
+
+        ensureAuthorized(call) {
+            let fields = (call.options["fields"] as? [String]).map { Set($0) }
+            let limit = call.options["limit"] as? Int
+            let trimmed = query.trimmingCharacters(in: .whitespacesAndNewlines)
+            if trimmed.isEmpty {
+                call.resolve(["contacts": JSArray()])
+                return
+            }
+
+            // Phone and email predicates only match whole values, so they are tried only when the query could be one
+            var predicates = [CNContact.predicateForContacts(matchingName: trimmed)]
+            if trimmed.rangeOfCharacter(from: .decimalDigits) != nil {
+                predicates.append(CNContact.predicateForContacts(matching: CNPhoneNumber(stringValue: trimmed)))
+            }
+            if trimmed.contains("@") {
+                predicates.append(CNContact.predicateForContacts(matchingEmailAddress: trimmed))
+            }
+
+            do {
+                let keysToFetch = self.keysToFetch(for: fields)
+                var contacts: [CNContact] = []
+                var seen = Set<String>()
+                for predicate in predicates {
+                    for contact in try self.contactStore.unifiedContacts(matching: predicate, keysToFetch: keysToFetch) {
+                        if let limit, contacts.count >= limit {
+                            break
+                        }
+                        if seen.insert(contact.identifier).inserted {
+                            contacts.append(contact)
+                        }
+                    }
+                }
+
+                var membership: [String: [String]] = [:]
+                if fields == nil || fields!.contains("groupIds") {
+                    membership = self.groupMembershipMap(for: contacts.map(\.identifier))
+                }
+
+                let serialized = contacts.map { self.serialize(contact: $0, fields: fields, membership: membership) }
+                call.resolve(["contacts": serialized])
+            } catch {
+                call.reject("Failed to search contacts.", nil, error)
+            }
+        }
+    }
+
+    @objc func lookupPhoneNumbers(_ call: CAPPluginCall) {
+        guard let entries = call.options["numbers"] as? [Any] else {
+            call.reject("Missing phone numbers.")
+            return
+        }
+        let numbers = entries.map { $0 as? String }
+
+        ensureAuthorized(call) {
+            let keysToFetch: [CNKeyDescriptor] = [
+                CNContactIdentifierKey as CNKeyDescriptor,
+                CNContactFormatter.descriptorForRequiredKeys(for: .fullName)
+            ]
+            var matches: [String: JSObject?] = [:]
+            var results = JSArray()
+
+            do {
+                for entry in numbers {
+                    guard let number = entry else {
+                        results.append(["number": NSNull(), "contact": NSNull()])
+                        continue
+                    }
+                    if matches[number] == nil {
+                        let predicate = CNContact.predicateForContacts(matching: CNPhoneNumber(stringValue: number))
+                        let contact = try self.contactStore.unifiedContacts(matching: predicate, keysToFetch: keysToFetch).first
+                        matches[number] = contact.map { contact -> JSObject in
+                            var match: JSObject = ["id": contact.identifier]
+                            if let displayName = CNContactFormatter.string(from: contact, style: .fullName) {
+                                match["displayName"] = displayName
+                            }
+                            return match
+                        }
+                    }
+                    var result: JSObject = ["number": number]
+                    if let match = matches[number] ?? nil {
+                        result["contact"] = match
+                    } else {
+                        result["contact"] = NSNull()
+                    }
+                    results.append(result)
+                }
+                call.resolve(["results": results])
+            } catch {
+                call.reject("Failed to look up phone numbers.", nil, error)
+            }
+        }
+    }
+
+    @objc func streamContacts(_ call: CAPPluginCall) {
+        ensureAuthorized(call) {
+            let fields = (call.options["fields"] as? [String]).map { Set($0) }
+            let limit = call.options["limit"] as? Int
+            let offset = call.options["offset"] as? Int ?? 0
+
+            let keysToFetch = self.keysToFetch(for: fields)
+            let request = CNContactFetchRequest(keysToFetch: keysToFetch)
+            request.sortOrder = .userDefault
+
+            let includeGroupIds = fields == nil || fields!.contains("groupIds")
+            var page: [CNContact] = []
+            var pageOffset = offset
+            var index = 0
+            var total = 0
+
+            func emitPage() {
+                guard !page.isEmpty else { return }
+                var membership: [String: [String]] = [:]
+                if includeGroupIds {
+                    membership = self.groupMembershipMap(for: page.map(\.identifier))
+                }
+                let serialized = page.map { self.serialize(contact: $0, fields: fields, membership: membership) }
+                self.notifyListeners("contactsPage", data: ["contacts": serialized, "offset": pageOffset])
+                pageOffset += page.count
+                page.removeAll(keepingCapacity: true)
+            }
+
+            do {
+                try self.contactStore.enumerateContacts(with: request) { contact, stop in
+                    if index < offset {
+                        index += 1
+                        return
+                    }
+                    if let limit, total >= limit {
+                        stop.pointee = true
+                        return
+                    }
+                    page.append(contact)
+                    total += 1
+                    index += 1
+                    if page.count >= self.streamPageSize {
+                        emitPage()
+                    }
+                }
+                emitPage()
+
+                let result: JSObject = ["total": total]
+                self.notifyListeners("contactsStreamComplete", data: result)
+                call.resolve(result)
+            } catch {
+                call.reject("Failed to stream contacts.", nil, error)
+            }
+        }
+    }
+
+    @objc func getSectionIndex(_ call: CAPPluginCall) {
+        call.unimplemented("Not implemented on iOS.")
+    }
+
+    @objc func getChangedContacts(_ call: CAPPluginCall) {
+        call.unimplemented("Not implemented on iOS.")
+    }
+
     @objc func getContactById(_ call: CAPPluginCall) {
         guard let identifier = call.options["id"] as? String else {
             call.reject("Missing contact identifier.")
@@ -114,13 +305,82 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
         }
     }
 
+    @objc func getContactsByIds(_ call: CAPPluginCall) {
+        guard let ids = call.options["ids"] as? [Any] else {
+            call.reject("Missing contact identifiers.")
+            return
+        }
+        let identifiers = ids.map { $0 as? String }
+
+        ensureAuthorized(call) {
+            let fields = (call.options["fields"] as? [String]).map { Set($0) }
+            let keysToFetch = self.keysToFetch(for: fields)
+            let lookup = Array(Set(identifiers.compactMap { $0 }))
+
+            do {
+                let predicate = CNContact.predicateForContacts(withIdentifiers: lookup)
+                let contacts = try self.contactStore.unifiedContacts(matching: predicate, keysToFetch: keysToFetch)
+                let membership = self.groupMembershipMap(for: contacts.map { $0.identifier })
+                var serializedById: [String: JSObject] = [:]
+                for contact in contacts {
+                    serializedById[contact.identifier] = self.serialize(contact: contact, fields: fields, membership: membership)
+                }
+                let result: JSArray = identifiers.map { identifier -> JSValue in
+                    guard let identifier, let serialized = serializedById[identifier] else {
+                        return NSNull()
+                    }
+                    return serialized
+                }
+                call.resolve(["contacts": result])
+            } catch {
+                call.reject("Failed to fetch contacts.", nil, error)
+            }
+        }
+    }
+
+    @objc func getContactPhoto(_ call: CAPPluginCall) {
+        guard let identifier = call.options["id"] as? String else {
+            call.reject("Missing contact identifier.")
+            return
+        }
+
+        ensureAuthorized(call) {
+            let thumbnail = (call.options["size"] as? String) == "thumbnail"
+            var keys: [CNKeyDescriptor] = [CNContactThumbnailImageDataKey as CNKeyDescriptor]
+            if !thumbnail {
+                keys.append(CNContactImageDataKey as CNKeyDescriptor)
+            }
+
+            do {
+                let contact = try self.contactStore.unifiedContact(withIdentifier: identifier, keysToFetch: keys)
+                let data = thumbnail ? contact.thumbnailImageData : (contact.imageData ?? contact.thumbnailImageData)
+                var result: JSObject = [:]
+                if let data {
+                    result["photo"] = data.base64EncodedString()
+                } else {
+                    result["photo"] = NSNull()
+                }
+                call.resolve(result)
+            } catch {
+                call.reject("Failed to fetch contact photo.", nil, error)
+            }
+        }
+    }
+
     @objc func getAccounts(_ call: CAPPluginCall) {
+        let withCounts = call.getBool("withCounts") ?? false
+
         do {
             let containers = try contactStore.containers(matching: nil)
-            let accounts: [JSObject] = containers.map {
+            let accounts: [JSObject] = try containers.map {
                 var account: JSObject = [:]
                 account["name"] = $0.name
                 account["type"] = mapContainerType($0.type)
+                if withCounts {
+                    let predicate = CNContact.predicateForContactsInContainer(withIdentifier: $0.identifier)
+                    let keys = [CNContactIdentifierKey as CNKeyDescriptor]
+                    account["count"] = try contactStore.unifiedContacts(matching: predicate, keysToFetch: keys).count
+                }
                 return account
             }
             call.resolve(["accounts": accounts])
@@ -153,6 +413,29 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
         }
     }
 
+    @objc func getCacheStats(_ call: CAPPluginCall) {
+        call.resolve([
+            "enabled": false,
+            "size": 0,
+            "maxSize": 0,
+            "hits": 0,
+            "misses": 0,
+            "evictions": 0
+        ])
+    }
+
+    @objc func getPerformanceMetrics(_ call: CAPPluginCall) {
+        call.resolve([
+            "enabled": false,
+            "methods": [String: Any]()
+        ])
+    }
+
+    @objc func cancel(_ call: CAPPluginCall) {
+        // No call is cancellable on iOS, so there is never one to cancel
+        call.resolve(["cancelled": false])
+    }
+
     @objc func getPluginVersion(_ call: CAPPluginCall) {
         call.resolve(["version": self.pluginVersion])
     }
@@ -216,27 +499,7 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
 
         ensureAuthorized(call) {
             do {
-                var keysToFetch: [CNKeyDescriptor] = [
-                    CNContactIdentifierKey as CNKeyDescriptor,
-                    CNContactGivenNameKey as CNKeyDescriptor,
-                    CNContactFamilyNameKey as CNKeyDescriptor,
-                    CNContactMiddleNameKey as CNKeyDescriptor,
-                    CNContactNamePrefixKey as CNKeyDescriptor,
-                    CNContactNameSuffixKey as CNKeyDescriptor,
-                    CNContactOrganizationNameKey as CNKeyDescriptor,
-                    CNContactJobTitleKey as CNKeyDescriptor,
-                    CNContactEmailAddressesKey as CNKeyDescriptor,
-                    CNContactPhoneNumbersKey as CNKeyDescriptor,
-                    CNContactPostalAddressesKey as CNKeyDescriptor,
-                    CNContactUrlAddressesKey as CNKeyDescriptor,
-                    CNContactBirthdayKey as CNKeyDescriptor,
-                    CNContactImageDataKey as CNKeyDescriptor
-                ]
-
-                if contactData["note"] != nil {
-                    keysToFetch.append(CNContactNoteKey as CNKeyDescriptor)
-                }
-
+                let keysToFetch = self.updateKeysToFetch(for: contactData)
                 let contact = try self.contactStore.unifiedContact(withIdentifier: identifier, keysToFetch: keysToFetch)
                 let mutableContact = contact.mutableCopy() as! CNMutableContact
 
@@ -276,16 +539,109 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
         }
     }
 
+    @objc func createContacts(_ call: CAPPluginCall) {
+        guard let contactsData = call.getArray("contacts", JSObject.self) else {
+            call.reject("Missing contacts data.")
+            return
+        }
+
+        ensureAuthorized(call) {
+            let contacts = contactsData.map { contactData -> CNMutableContact in
+                let contact = CNMutableContact()
+                self.populateContact(contact, from: contactData)
+                return contact
+            }
+            let errors = self.executeInChunks(contacts) { request, contact in
+                request.add(contact, toContainerWithIdentifier: nil)
+            }
+            let ids: [String?] = contacts.enumerated().map { errors[$0.offset] == nil ? $0.element.identifier : nil }
+            call.resolve(["results": self.bulkResults(ids: ids, errors: errors)])
+        }
+    }
+
+    @objc func updateContacts(_ call: CAPPluginCall) {
+        guard let updatesData = call.getArray("contacts", JSObject.self) else {
+            call.reject("Missing contacts data.")
+            return
+        }
+
+        ensureAuthorized(call) {
+            let ids = updatesData.map { $0["id"] as? String }
+            var errors = [String?](repeating: nil, count: updatesData.count)
+            var contacts = [CNMutableContact?](repeating: nil, count: updatesData.count)
+
+            for (index, update) in updatesData.enumerated() {
+                guard let identifier = ids[index], let contactData = update["contact"] as? JSObject else {
+                    errors[index] = "Missing contact identifier or data."
+                    continue
+                }
+                do {
+                    let keysToFetch = self.updateKeysToFetch(for: contactData)
+                    let contact = try self.contactStore.unifiedContact(withIdentifier: identifier, keysToFetch: keysToFetch)
+                    let mutableContact = contact.mutableCopy() as! CNMutableContact
+                    self.populateContact(mutableContact, from: contactData)
+                    contacts[index] = mutableContact
+                } catch {
+                    errors[index] = error.localizedDescription
+                }
+            }
+
+            self.mergeBulkErrors(&errors, self.executeInChunks(contacts) { request, contact in
+                request.update(contact)
+            })
+            call.resolve(["results": self.bulkResults(ids: ids, errors: errors)])
+        }
+    }
+
+    @objc func deleteContacts(_ call: CAPPluginCall) {
+        guard let entries = call.options["ids"] as? [Any] else {
+            call.reject("Missing contact identifiers.")
+            return
+        }
+        let ids = entries.map { $0 as? String }
+
+        ensureAuthorized(call) {
+            var errors = [String?](repeating: nil, count: ids.count)
+            var contacts = [CNMutableContact?](repeating: nil, count: ids.count)
+            let keysToFetch: [CNKeyDescriptor] = [CNContactIdentifierKey as CNKeyDescriptor]
+
+            for (index, identifier) in ids.enumerated() {
+                guard let identifier else {
+                    errors[index] = "Invalid contact identifier."
+                    continue
+                }
+                do {
+                    let contact = try self.contactStore.unifiedContact(withIdentifier: identifier, keysToFetch: keysToFetch)
+                    contacts[index] = contact.mutableCopy() as? CNMutableContact
+                } catch {
+                    errors[index] = error.localizedDescription
+                }
+            }
+
+            self.mergeBulkErrors(&errors, self.executeInChunks(contacts) { request, contact in
+                request.delete(contact)
+            })
+            call.resolve(["results": self.bulkResults(ids: ids, errors: errors)])
+        }
+    }
+
     // MARK: - Group operations
 
     @objc func getGroups(_ call: CAPPluginCall) {
+        let withCounts = call.getBool("withCounts") ?? false
+
         ensureAuthorized(call) {
             do {
                 let groups = try self.contactStore.groups(matching: nil)
-                let serialized: [JSObject] = groups.map { group in
+                let serialized: [JSObject] = try groups.map { group in
                     var result: JSObject = [:]
                     result["id"] = group.identifier
                     result["name"] = group.name
+                    if withCounts {
+                        let predicate = CNContact.predicateForContactsInGroup(withIdentifier: group.identifier)
+                        let keys = [CNContactIdentifierKey as CNKeyDescriptor]
+                        result["count"] = try self.contactStore.unifiedContacts(matching: predicate, keysToFetch: keys).count
+                    }
                     return result
                 }
                 call.resolve(["groups": serialized])
@@ -295,6 +651,47 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
         }
     }
 
+    @objc func getContactsInGroup(_ call: CAPPluginCall) {
+        guard let groupId = call.options["groupId"] as? String else {
+            call.reject("Missing group identifier.")
+            return
+        }
+
+        ensureAuthorized(call) {
+            let fields = (call.options["fields"] as? [String]).map { Set($0) }
+            let limit = call.options["limit"] as? Int
+            let offset = call.options["offset"] as? Int ?? 0
+
+            let request = CNContactFetchRequest(keysToFetch: self.keysToFetch(for: fields))
+            request.predicate = CNContact.predicateForContactsInGroup(withIdentifier: groupId)
+            request.sortOrder = .userDefault
+
+            var contacts: [CNContact] = []
+            var index = 0
+
+            do {
+                try self.contactStore.enumerateContacts(with: request) { contact, stop in
+                    if index < offset {
+                        index += 1
+                        return
+                    }
+                    if let limit, contacts.count >= limit {
+                        stop.pointee = true
+                        return
+                    }
+                    contacts.append(contact)
+                    index += 1
+                }
+
+                let membership = self.groupMembershipMap(for: contacts.map(\.identifier))
+                let serialized = contacts.map { self.serialize(contact: $0, fields: fields, membership: membership) }
+                call.resolve(["contacts": serialized])
+            } catch {
+                call.reject("Failed to fetch group contacts.", nil, error)
+            }
+        }
+    }
+
     @objc func getGroupById(_ call: CAPPluginCall) {
         guard let identifier = call.options["id"] as? String else {
             call.reject("Missing group identifier.")
@@ -553,6 +950,92 @@ public class CapacitorContactsPlugin: CAPPlugin, CAPBridgedPlugin {
         }
     }
 
+    /// Keys an update has to fetch before `populateContact` can write to the contact. The note is only
+    /// fetched when it is written, because reading it requires an extra entitlement.
+    private func updateKeysToFetch(for contactData: JSObject) -> [CNKeyDescriptor] {
+        var keysToFetch: [CNKeyDescriptor] = [
+            CNContactIdentifierKey as CNKeyDescriptor,
+            CNContactGivenNameKey as CNKeyDescriptor,
+            CNContactFamilyNameKey as CNKeyDescriptor,
+            CNContactMiddleNameKey as CNKeyDescriptor,
+            CNContactNamePrefixKey as CNKeyDescriptor,
+            CNContactNameSuffixKey as CNKeyDescriptor,
+            CNContactOrganizationNameKey as CNKeyDescriptor,
+            CNContactJobTitleKey as CNKeyDescriptor,
+            CNContactEmailAddressesKey as CNKeyDescriptor,
+            CNContactPhoneNumbersKey as CNKeyDescriptor,
+            CNContactPostalAddressesKey as CNKeyDescriptor,
+            CNContactUrlAddressesKey as CNKeyDescriptor,
+            CNContactBirthdayKey as CNKeyDescriptor,
+            CNContactImageDataKey as CNKeyDescriptor
+        ]
+
+        if contactData["note"] != nil {
+            keysToFetch.append(CNContactNoteKey as CNKeyDescriptor)
+        }
+
+        return keysToFetch
+    }
+
+    /// Saves contacts in `bulkChunkSize` save requests. A save request is all-or-nothing, so a failed
+    /// chunk is replayed one contact at a time to report only the contacts that actually fail.
+    /// `nil` entries are skipped and keep a `nil` error; the caller has already recorded why.
+    private func executeInChunks(_ contacts: [CNMutableContact?], _ add: (CNSaveRequest, CNMutableContact) -> Void) -> [String?] {
+        var errors = [String?](repeating: nil, count: contacts.count)
+        var start = 0
+
+        while start < contacts.count {
+            let end = min(start + bulkChunkSize, contacts.count)
+            let request = CNSaveRequest()
+            for index in start..<end {
+                if let contact = contacts[index] {
+                    add(request, contact)
+                }
+            }
+
+            do {
+                try contactStore.execute(request)
+            } catch {
+                for index in start..<end {
+                    guard let contact = contacts[index] else {
+                        continue
+                    }
+                    let itemRequest = CNSaveRequest()
+                    add(itemRequest, contact)
+                    do {
+                        try contactStore.execute(itemRequest)
+                    } catch {
+                        errors[index] = error.localizedDescription
+                    }
+                }
+            }
+            start = end
+        }
+
+        return errors
+    }
+
+    private func mergeBulkErrors(_ errors: inout [String?], _ saveErrors: [String?]) {
+        for (index, error) in saveErrors.enumerated() where errors[index] == nil {
+            errors[index] = error
+        }
+    }
+
+    private func bulkResults(ids: [String?], errors: [String?]) -> JSArray {
+        var results = JSArray()
+        for (index, error) in errors.enumerated() {
+            var result: JSObject = ["success": error == nil]
+            if let identifier = ids[index] {
+                result["id"] = identifier
+            }
+            if let error = error {
+                result["error"] = error
+            }
+            results.append(result)
+        }
+        return results
+    }
+
     private func authorizationStatus() -> JSObject {
         let status = mapAuthorizationStatus(CNContactStore.authorizationStatus(for: .contacts))
         return [
@@ -0,0 +1,80 @@
+import type { ColumnarContacts, ColumnarList, Contact } from './definitions';
+
+/**
+ * Turn a `getContacts({ format: 'columnar' })` result back into contacts, identical to the ones
+ * returned without `format`.
+ *
+ * @param columnar - The `columnar` property of the result
+ * @returns The decoded contacts, in list order
+ * @since 8.1.0
+ */
+export function decodeColumnarContacts(columnar: ColumnarContacts): Contact[] {
+  const contacts: Record<string, unknown>[] = [];
+  for (let i = 0; i < columnar.count; i++) {
+    contacts.push({});
+  }
+
+  columnar.fields.forEach((field, index) => {
+    const column = columnar.columns[index];
+    if (Array.isArray(column)) {
+      decodeValues(contacts, field, column);
+    } else {
+      decodeList(contacts, field, column, columnar.labels);
+    }
+  });
+
+  return contacts as unknown as Contact[];
+}
+
+function decodeValues(contacts: Record<string, unknown>[], field: string, column: unknown[]): void {
+  const dot = field.indexOf('.');
+  column.forEach((value, i) => {
+    if (value === null || value === undefined) {
+      return;
+    }
+    const contact = contacts[i];
+    if (dot < 0) {
+      contact[field] = value;
+      return;
+    }
+
+    const parent = field.substring(0, dot);
+    const child = field.substring(dot + 1);
+    const object = (contact[parent] as Record<string, unknown> | undefined) ?? {};
+    object[child] = value;
+    if (parent === 'photoHandle') {
+      object.contactId = contact.id;
+    }
+    contact[parent] = object;
+  });
+}
+
+function decodeList(contacts: Record<string, unknown>[], field: string, list: ColumnarList, labels: string[]): void {
+  contacts.forEach((contact, i) => {
+    const entries: unknown[] = [];
+    for (let entryIndex = list.offsets[i]; entryIndex < list.offsets[i + 1]; entryIndex++) {
+      // Group ids are plain strings, stored as a single value column
+      if (field === 'groupIds') {
+        entries.push(list.columns[0][entryIndex]);
+        continue;
+      }
+
+      const entry: Record<string, unknown> = {};
+      list.fields.forEach((name, f) => {
+        const value = list.columns[f][entryIndex];
+        if (value === null || value === undefined) {
+          return;
+        }
+        if (name === 'type') {
+          entry[name] = labels[value as number];
+        } else if (name === 'isPrimary') {
+          entry[name] = value === 1;
+        } else {
+          entry[name] = value;
+        }
+      });
+      entries.push(entry);
+    }
+    contact[field] = entries;
+  });
+}
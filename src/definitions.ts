@@ -1,4 +1,64 @@
-import type { PermissionState } from '@capacitor/core';
+/// <reference types="@capacitor/cli" />
+
+import type { PermissionState, PluginListenerHandle } from '@capacitor/core';
+
+declare module '@capacitor/cli' {
+  export interface PluginsConfig {
+    /**
+     * Configuration for the Capacitor Contacts plugin.
+     */
+    CapacitorContacts?: {
+      /**
+       * Keep recently read contacts, lists and counts in an in-memory cache.
+       * The cache is invalidated automatically whenever the address book changes.
+       *
+       * Only available on Android.
+       *
+       * @default false
+       * @since 8.1.0
+       * @example true
+       */
+      cache?: boolean;
+
+      /**
+       * Maximum number of contacts kept in the cache, counting every contact of a cached list.
+       *
+       * Only available on Android.
+       *
+       * @default 500
+       * @since 8.1.0
+       * @example 2000
+       */
+      cacheSize?: number;
+
+      /**
+       * Maximum number of contacts operations waiting to run. Reads and writes each have their own queue;
+       * calls made while a queue is full are rejected instead of piling up.
+       *
+       * Only available on Android.
+       *
+       * @default 64
+       * @since 8.1.0
+       * @example 128
+       */
+      queueDepth?: number;
+
+      /**
+       * Record what every contacts call does against the device contacts: provider queries, rows read,
+       * time spent querying, decoding and serializing, and the size of the result.
+       * Read the totals with `getPerformanceMetrics()` or listen for `performanceMetrics` events.
+       * Recording adds a small cost to every call, so leave it off outside of diagnostics.
+       *
+       * Only available on Android.
+       *
+       * @default false
+       * @since 8.1.0
+       * @example true
+       */
+      performanceMetrics?: boolean;
+    };
+  }
+}
 
 /**
  * Permission state for contacts access, including the 'limited' state for iOS 18+.
@@ -330,6 +390,58 @@ export interface UrlAddress {
   label?: string;
 }
 
+/**
+ * Reference to a contact photo that can be loaded on demand with `getContactPhoto`.
+ *
+ * @since 8.1.0
+ */
+export interface PhotoHandle {
+  /**
+   * The ID of the contact the photo belongs to.
+   *
+   * @since 8.1.0
+   */
+  contactId: string;
+
+  /**
+   * Opaque version of the photo. It changes whenever the photo changes, so it can be used as a cache key.
+   *
+   * @since 8.1.0
+   */
+  version: string;
+}
+
+/**
+ * How contact photos are returned in list results.
+ *
+ * - `base64`: the photo is inlined as a Base64 string in `photo`.
+ * - `handle`: only a `photoHandle` is returned; load the image with `getContactPhoto`.
+ *
+ * @since 8.1.0
+ */
+export type PhotoMode = 'base64' | 'handle';
+
+/**
+ * Where `getContacts` reads contacts from.
+ *
+ * - `provider`: the platform contact store.
+ * - `snapshot`: a copy persisted by the plugin, returned without waiting on the contact store.
+ *   It is refreshed in the background and `snapshotUpdated` is emitted when it changed.
+ *
+ * @since 8.1.0
+ */
+export type ContactsSource = 'provider' | 'snapshot';
+
+/**
+ * How `getContacts` encodes its result.
+ *
+ * - `objects`: `contacts` holds one object per contact.
+ * - `columnar`: `contacts` is empty and `columnar` holds the same data as parallel columns.
+ *
+ * @since 8.1.0
+ */
+export type ContactsFormat = 'objects' | 'columnar';
+
 /**
  * Contact information.
  *
@@ -448,6 +560,17 @@ export interface Contact {
    */
   photo?: string;
 
+  /**
+   * Lightweight reference to the contact photo, returned instead of `photo`
+   * when contacts are listed with `photoMode: 'handle'`.
+   * Pass its `contactId` to `getContactPhoto` to load the image.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  photoHandle?: PhotoHandle;
+
   /**
    * Postal addresses for the contact.
    *
@@ -470,6 +593,94 @@ export interface Contact {
  */
 export type ContactField = keyof Contact;
 
+/**
+ * A section of the contact list, such as all the contacts starting with `A`.
+ *
+ * @since 8.1.0
+ */
+export interface ContactSection {
+  /**
+   * Label of the section, such as `A` or `#`.
+   *
+   * @since 8.1.0
+   */
+  title: string;
+
+  /**
+   * Position of the first contact of the section in the `getContacts` order, usable as its `offset`.
+   *
+   * @since 8.1.0
+   */
+  offset: number;
+
+  /**
+   * Number of contacts in the section.
+   *
+   * @since 8.1.0
+   */
+  count: number;
+}
+
+/**
+ * Result from getting the section index.
+ *
+ * @since 8.1.0
+ */
+export interface GetSectionIndexResult {
+  /**
+   * Sections in list order.
+   *
+   * @since 8.1.0
+   */
+  sections: ContactSection[];
+
+  /**
+   * Total number of contacts across all sections.
+   *
+   * @since 8.1.0
+   */
+  total: number;
+}
+
+/**
+ * Filters for counting contacts.
+ *
+ * @since 8.1.0
+ */
+export interface CountContactsOptions {
+  /**
+   * Only count contacts with (`true`) or without (`false`) a phone number.
+   *
+   * @since 8.1.0
+   */
+  hasPhoneNumber?: boolean;
+
+  /**
+   * Only count starred (`true`) or non-starred (`false`) contacts.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  starred?: boolean;
+
+  /**
+   * Only count contacts in the group with this ID.
+   *
+   * @since 8.1.0
+   */
+  groupId?: string;
+
+  /**
+   * Only count contacts with data in this account. A missing `type` matches the device-local account.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  account?: Account;
+}
+
 /**
  * Result from counting contacts.
  *
@@ -568,6 +779,35 @@ export interface DisplayUpdateContactByIdOptions {
   id: string;
 }
 
+/**
+ * Options for getting accounts.
+ *
+ * @since 8.1.0
+ */
+export interface GetAccountsOptions {
+  /**
+   * Include the number of contacts stored in each account as `count`.
+   *
+   * @default false
+   * @since 8.1.0
+   */
+  withCounts?: boolean;
+}
+
+/**
+ * An account returned by `getAccounts`.
+ *
+ * @since 8.1.0
+ */
+export interface AccountSummary extends Account {
+  /**
+   * Number of contacts stored in the account. Only set with `withCounts: true`.
+   *
+   * @since 8.1.0
+   */
+  count?: number;
+}
+
 /**
  * Result from getting accounts.
  *
@@ -579,7 +819,7 @@ export interface GetAccountsResult {
    *
    * @since 1.0.0
    */
-  accounts: Account[];
+  accounts: AccountSummary[];
 }
 
 /**
@@ -617,6 +857,41 @@ export interface GetContactByIdResult {
   contact: Contact | null;
 }
 
+/**
+ * Options for getting several contacts by ID.
+ *
+ * @since 8.1.0
+ */
+export interface GetContactsByIdsOptions {
+  /**
+   * The IDs of the contacts to retrieve.
+   *
+   * @since 8.1.0
+   */
+  ids: string[];
+
+  /**
+   * Optional list of specific fields to retrieve. If not specified, all fields are returned.
+   *
+   * @since 8.1.0
+   */
+  fields?: ContactField[];
+}
+
+/**
+ * Result from getting several contacts by ID.
+ *
+ * @since 8.1.0
+ */
+export interface GetContactsByIdsResult {
+  /**
+   * The contacts in the order of the requested IDs, with null for each ID that was not found.
+   *
+   * @since 8.1.0
+   */
+  contacts: (Contact | null)[];
+}
+
 /**
  * Options for getting contacts.
  *
@@ -640,9 +915,83 @@ export interface GetContactsOptions {
   /**
    * Number of contacts to skip before starting to return results.
    *
+   * Since 8.1.0 it is also applied without `limit` on Android; earlier versions ignored it there
+   * and returned every contact.
+   *
    * @since 1.0.0
    */
   offset?: number;
+
+  /**
+   * Continue after the page that returned this `nextPageToken`, instead of skipping `offset` contacts.
+   * Deep pages are as fast as the first one, and contacts added or removed in earlier pages do not shift
+   * the next ones. Cannot be combined with `offset`. Tokens work across `source: 'provider'` and
+   * `source: 'snapshot'`, since both list contacts in the same order.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  pageToken?: string;
+
+  /**
+   * How photos are returned when the `photo` field is requested.
+   * Use `handle` to keep large lists small and load images with `getContactPhoto` for visible rows only.
+   *
+   * Only available on Android.
+   *
+   * @default 'base64'
+   * @since 8.1.0
+   */
+  photoMode?: PhotoMode;
+
+  /**
+   * Fetch contacts in batches spread over several threads, for large exports on multi-core devices.
+   * Contacts are still returned in display-name order. Ignored by `streamContacts`.
+   *
+   * Only available on Android.
+   *
+   * @default false
+   * @since 8.1.0
+   */
+  parallel?: boolean;
+
+  /**
+   * Read from the persisted snapshot instead of the contact store, for instant lists on cold start.
+   * The first snapshot read builds the snapshot, so it takes as long as a regular fetch.
+   * Snapshot photos are always returned as handles. Ignored by `streamContacts`.
+   *
+   * Only available on Android.
+   *
+   * @default 'provider'
+   * @since 8.1.0
+   */
+  source?: ContactsSource;
+
+  /**
+   * Return the contacts as parallel columns in `columnar` instead of one object per contact.
+   * Field names are sent once and type names are shared, which makes large lists much smaller
+   * and faster to parse. Use `decodeColumnarContacts` to turn the result back into contacts.
+   * Ignored with `source: 'snapshot'`.
+   *
+   * Only available on Android.
+   *
+   * @default 'objects'
+   * @since 8.1.0
+   */
+  format?: ContactsFormat;
+
+  /**
+   * Identifier chosen by the caller to cancel this call with `cancel({ callId })`, for example when the
+   * user navigates away. A cancelled call stops within one batch of contacts and rejects with
+   * `Call was cancelled.`. Must not be shared by two calls running at the same time.
+   * Ignored with `source: 'snapshot'`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  callId?: string;
 }
 
 /**
@@ -657,195 +1006,995 @@ export interface GetContactsResult {
    * @since 1.0.0
    */
   contacts: Contact[];
-}
 
-/**
- * Options for getting a group by ID.
- *
- * @since 1.0.0
- */
-export interface GetGroupByIdOptions {
   /**
-   * The ID of the group to retrieve.
+   * The contacts as parallel columns, when requested with `format: 'columnar'`.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  id: string;
-}
+  columnar?: ColumnarContacts;
 
-/**
- * Result from getting a group by ID.
- *
- * @since 1.0.0
- */
-export interface GetGroupByIdResult {
   /**
-   * The group, or null if not found.
+   * Token to pass as `pageToken` to get the next page. Only set when `limit` was given and the page is full.
    *
-   * @since 1.0.0
+   * Only available on Android.
+   *
+   * @since 8.1.0
    */
-  group: Group | null;
+  nextPageToken?: string;
 }
 
 /**
- * Result from getting groups.
+ * Contacts encoded as parallel columns.
  *
- * @since 1.0.0
+ * Column `columns[i]` holds the values of field `fields[i]` for every contact, in list order.
+ * Object fields are split into one column per property, named like `birthday.day`.
+ * Missing values are `null`.
+ *
+ * @since 8.1.0
  */
-export interface GetGroupsResult {
+export interface ColumnarContacts {
   /**
-   * List of groups.
+   * Number of contacts.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  groups: Group[];
-}
+  count: number;
 
-/**
- * Contact group information.
- *
- * @since 1.0.0
- */
-export interface Group {
   /**
-   * Unique identifier for the group.
+   * Type names referenced by index from `type` columns, such as `MOBILE` or `HOME`.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  id: string;
+  labels: string[];
 
   /**
-   * Name of the group.
+   * Name of each column.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  name: string;
+  fields: string[];
+
+  /**
+   * Values of each column, in the order of `fields`. Multi-valued fields such as `phoneNumbers` are a `ColumnarList`.
+   *
+   * @since 8.1.0
+   */
+  columns: (unknown[] | ColumnarList)[];
 }
 
 /**
- * Options for creating a group.
+ * Entries of a multi-valued field for every contact, as parallel columns.
  *
- * @since 1.0.0
+ * The entries of contact `i` are at positions `offsets[i]` to `offsets[i + 1] - 1` of every column.
+ * `type` columns hold indexes into `ColumnarContacts.labels`, and `isPrimary` columns hold 1 or 0.
+ *
+ * @since 8.1.0
  */
-export interface CreateGroupOptions {
+export interface ColumnarList {
   /**
-   * Group information to create. The 'id' field will be generated automatically.
+   * Start of the entries of each contact, followed by the total number of entries.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  group: Omit<Group, 'id'>;
+  offsets: number[];
+
+  /**
+   * Name of each entry property.
+   *
+   * @since 8.1.0
+   */
+  fields: string[];
+
+  /**
+   * Values of each entry property, in the order of `fields`.
+   *
+   * @since 8.1.0
+   */
+  columns: unknown[][];
 }
 
 /**
- * Result from creating a group.
+ * Options for streaming contacts page by page.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export interface CreateGroupResult {
+export type StreamContactsOptions = GetContactsOptions;
+
+/**
+ * Result from streaming contacts, resolved once every page has been emitted.
+ *
+ * @since 8.1.0
+ */
+export interface StreamContactsResult {
   /**
-   * The ID of the newly created group.
+   * Total number of contacts emitted across all pages.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  id: string;
+  total: number;
 }
 
 /**
- * Options for deleting a contact by ID.
+ * Event emitted for each page of contacts produced by `streamContacts`.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export interface DeleteContactByIdOptions {
+export interface ContactsPageEvent {
   /**
-   * The ID of the contact to delete.
+   * Contacts in this page.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  id: string;
+  contacts: Contact[];
+
+  /**
+   * Position of the first contact of this page in the overall result.
+   *
+   * @since 8.1.0
+   */
+  offset: number;
 }
 
 /**
- * Options for deleting a group by ID.
+ * Event emitted once `streamContacts` has emitted its last page.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export interface DeleteGroupByIdOptions {
+export interface ContactsStreamCompleteEvent {
   /**
-   * The ID of the group to delete.
+   * Total number of contacts emitted across all pages.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  id: string;
+  total: number;
 }
 
 /**
- * Options for picking contacts using the native contact picker.
+ * Event emitted when a background refresh changed the contacts snapshot.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export interface PickContactsOptions {
+export interface SnapshotUpdatedEvent {
   /**
-   * Optional list of specific fields to retrieve. If not specified, all fields are returned.
+   * Number of contacts added or updated in the snapshot.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  fields?: ContactField[];
+  updated: number;
 
   /**
-   * Whether to allow selecting multiple contacts. Default is false.
+   * Number of contacts removed from the snapshot.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  multiple?: boolean;
+  deleted: number;
 }
 
 /**
- * Result from picking contacts.
+ * Options for getting the contacts that changed since a previous sync.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export interface PickContactsResult {
+export interface GetChangedContactsOptions {
   /**
-   * List of selected contacts.
+   * The `syncToken` returned by a previous call. Omit it to receive every contact.
    *
-   * @since 1.0.0
+   * @default 0
+   * @since 8.1.0
+   */
+  since?: number;
+
+  /**
+   * Optional list of specific fields to retrieve. If not specified, all fields are returned.
+   *
+   * @since 8.1.0
+   */
+  fields?: ContactField[];
+
+  /**
+   * How photos are returned when the `photo` field is requested.
+   *
+   * @default 'base64'
+   * @since 8.1.0
+   */
+  photoMode?: PhotoMode;
+}
+
+/**
+ * Result from getting the contacts that changed since a previous sync.
+ *
+ * @since 8.1.0
+ */
+export interface GetChangedContactsResult {
+  /**
+   * Contacts created or updated since `since`.
+   *
+   * @since 8.1.0
+   */
+  contacts: Contact[];
+
+  /**
+   * IDs of the contacts deleted since `since`.
+   *
+   * @since 8.1.0
+   */
+  deletedIds: string[];
+
+  /**
+   * Token to pass as `since` on the next call.
+   *
+   * @since 8.1.0
+   */
+  syncToken: number;
+
+  /**
+   * `true` when `since` is older than the time the system keeps deletions for. `deletedIds` may then
+   * miss contacts deleted in the meantime, so replace the local copy with a full `getContacts` fetch
+   * and continue from `syncToken`.
+   *
+   * @since 8.1.0
+   */
+  fullSyncRequired: boolean;
+}
+
+/**
+ * Options for looking up phone numbers.
+ *
+ * @since 8.1.0
+ */
+export interface LookupPhoneNumbersOptions {
+  /**
+   * Phone numbers to resolve, in any format.
+   *
+   * @since 8.1.0
+   */
+  numbers: string[];
+}
+
+/**
+ * Contact a phone number belongs to.
+ *
+ * @since 8.1.0
+ */
+export interface PhoneNumberMatch {
+  /**
+   * The ID of the matching contact.
+   *
+   * @since 8.1.0
+   */
+  id: string;
+
+  /**
+   * Display name of the matching contact.
+   *
+   * @since 8.1.0
+   */
+  displayName?: string;
+}
+
+/**
+ * Lookup outcome for one phone number.
+ *
+ * @since 8.1.0
+ */
+export interface PhoneNumberLookupResult {
+  /**
+   * The number as it was passed in.
+   *
+   * @since 8.1.0
+   */
+  number: string;
+
+  /**
+   * The contact this number belongs to, or `null` if none matches.
+   *
+   * @since 8.1.0
+   */
+  contact: PhoneNumberMatch | null;
+}
+
+/**
+ * Result from looking up phone numbers.
+ *
+ * @since 8.1.0
+ */
+export interface LookupPhoneNumbersResult {
+  /**
+   * One entry per requested number, in input order.
+   *
+   * @since 8.1.0
+   */
+  results: PhoneNumberLookupResult[];
+}
+
+/**
+ * Options for searching contacts.
+ *
+ * @since 8.1.0
+ */
+export interface SearchContactsOptions {
+  /**
+   * Text to look for in contact names, phone numbers and email addresses.
+   *
+   * @since 8.1.0
+   */
+  query: string;
+
+  /**
+   * Optional list of specific fields to retrieve. If not specified, all fields are returned.
+   *
+   * @since 8.1.0
+   */
+  fields?: ContactField[];
+
+  /**
+   * Maximum number of contacts to return.
+   *
+   * @since 8.1.0
+   */
+  limit?: number;
+
+  /**
+   * How photos are returned when the `photo` field is requested.
+   *
+   * Only available on Android.
+   *
+   * @default 'base64'
+   * @since 8.1.0
+   */
+  photoMode?: PhotoMode;
+}
+
+/**
+ * Result from searching contacts.
+ *
+ * @since 8.1.0
+ */
+export interface SearchContactsResult {
+  /**
+   * Matching contacts, best name matches first.
+   *
+   * @since 8.1.0
+   */
+  contacts: Contact[];
+}
+
+/**
+ * Options for getting a contact photo.
+ *
+ * @since 8.1.0
+ */
+export interface GetContactPhotoOptions {
+  /**
+   * The ID of the contact whose photo should be loaded.
+   *
+   * @since 8.1.0
+   */
+  id: string;
+
+  /**
+   * Size of the photo to load. Falls back to the thumbnail when no full-size photo exists.
+   *
+   * @default 'full'
+   * @since 8.1.0
+   */
+  size?: 'full' | 'thumbnail';
+}
+
+/**
+ * Result from getting a contact photo.
+ *
+ * @since 8.1.0
+ */
+export interface GetContactPhotoResult {
+  /**
+   * Base64-encoded photo, or null if the contact has no photo.
+   *
+   * @since 8.1.0
+   */
+  photo: string | null;
+}
+
+/**
+ * Options for getting a group by ID.
+ *
+ * @since 1.0.0
+ */
+export interface GetGroupByIdOptions {
+  /**
+   * The ID of the group to retrieve.
+   *
+   * @since 1.0.0
+   */
+  id: string;
+}
+
+/**
+ * Result from getting a group by ID.
+ *
+ * @since 1.0.0
+ */
+export interface GetGroupByIdResult {
+  /**
+   * The group, or null if not found.
+   *
+   * @since 1.0.0
+   */
+  group: Group | null;
+}
+
+/**
+ * Options for getting groups.
+ *
+ * @since 8.1.0
+ */
+export interface GetGroupsOptions {
+  /**
+   * Include the number of contacts in each group as `count`.
+   *
+   * @default false
+   * @since 8.1.0
+   */
+  withCounts?: boolean;
+}
+
+/**
+ * Options for getting the contacts of a group.
+ *
+ * @since 8.1.0
+ */
+export interface GetContactsInGroupOptions {
+  /**
+   * The ID of the group.
+   *
+   * @since 8.1.0
+   */
+  groupId: string;
+
+  /**
+   * Optional list of specific fields to retrieve. If not specified, all fields are returned.
+   *
+   * @since 8.1.0
+   */
+  fields?: ContactField[];
+
+  /**
+   * Maximum number of contacts to return.
+   *
+   * @since 8.1.0
+   */
+  limit?: number;
+
+  /**
+   * Number of contacts to skip before starting to return results.
+   *
+   * @since 8.1.0
+   */
+  offset?: number;
+
+  /**
+   * Continue after the page that returned this `nextPageToken`, instead of skipping `offset` contacts.
+   * Deep pages are as fast as the first one. Cannot be combined with `offset`.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  pageToken?: string;
+
+  /**
+   * How photos are returned when the `photo` field is requested.
+   *
+   * Only available on Android.
+   *
+   * @default 'base64'
+   * @since 8.1.0
+   */
+  photoMode?: PhotoMode;
+}
+
+/**
+ * Result from getting the contacts of a group.
+ *
+ * @since 8.1.0
+ */
+export interface GetContactsInGroupResult {
+  /**
+   * The contacts of the group, in display-name order.
+   *
+   * @since 8.1.0
+   */
+  contacts: Contact[];
+
+  /**
+   * Token to pass as `pageToken` to get the next page. Only set when `limit` was given and the page is full.
+   *
+   * Only available on Android.
+   *
+   * @since 8.1.0
+   */
+  nextPageToken?: string;
+}
+
+/**
+ * Result from getting groups.
+ *
+ * @since 1.0.0
+ */
+export interface GetGroupsResult {
+  /**
+   * List of groups.
+   *
+   * @since 1.0.0
+   */
+  groups: Group[];
+}
+
+/**
+ * Contact group information.
+ *
+ * @since 1.0.0
+ */
+export interface Group {
+  /**
+   * Unique identifier for the group.
+   *
+   * @since 1.0.0
+   */
+  id: string;
+
+  /**
+   * Name of the group.
+   *
+   * @since 1.0.0
+   */
+  name: string;
+
+  /**
+   * Number of contacts in the group. Only set by `getGroups` with `withCounts: true`.
+   *
+   * @since 8.1.0
+   */
+  count?: number;
+}
+
+/**
+ * Options for creating a group.
+ *
+ * @since 1.0.0
+ */
+export interface CreateGroupOptions {
+  /**
+   * Group information to create. The 'id' field will be generated automatically.
+   *
+   * @since 1.0.0
+   */
+  group: Omit<Group, 'id'>;
+}
+
+/**
+ * Result from creating a group.
+ *
+ * @since 1.0.0
+ */
+export interface CreateGroupResult {
+  /**
+   * The ID of the newly created group.
+   *
+   * @since 1.0.0
+   */
+  id: string;
+}
+
+/**
+ * Options for deleting a contact by ID.
+ *
+ * @since 1.0.0
+ */
+export interface DeleteContactByIdOptions {
+  /**
+   * The ID of the contact to delete.
+   *
+   * @since 1.0.0
+   */
+  id: string;
+}
+
+/**
+ * Options for deleting a group by ID.
+ *
+ * @since 1.0.0
+ */
+export interface DeleteGroupByIdOptions {
+  /**
+   * The ID of the group to delete.
+   *
+   * @since 1.0.0
+   */
+  id: string;
+}
+
+/**
+ * Options for picking contacts using the native contact picker.
+ *
+ * @since 1.0.0
+ */
+export interface PickContactsOptions {
+  /**
+   * Optional list of specific fields to retrieve. If not specified, all fields are returned.
+   *
+   * @since 1.0.0
+   */
+  fields?: ContactField[];
+
+  /**
+   * Whether to allow selecting multiple contacts. Default is false.
+   *
+   * @since 1.0.0
+   */
+  multiple?: boolean;
+}
+
+/**
+ * Result from picking contacts.
+ *
+ * @since 1.0.0
+ */
+export interface PickContactsResult {
+  /**
+   * List of selected contacts.
+   *
+   * @since 1.0.0
    */
   contacts: Contact[];
 }
 
 /**
- * Alias for PickContactsOptions.
+ * Alias for PickContactsOptions.
+ *
+ * @since 1.0.0
+ */
+export type PickContactOptions = PickContactsOptions;
+
+/**
+ * Alias for PickContactsResult.
+ *
+ * @since 1.0.0
+ */
+export type PickContactResult = PickContactsResult;
+
+/**
+ * Options for updating a contact by ID.
+ *
+ * @since 1.0.0
+ */
+export interface UpdateContactByIdOptions {
+  /**
+   * The ID of the contact to update.
+   *
+   * @since 1.0.0
+   */
+  id: string;
+
+  /**
+   * Updated contact information.
+   *
+   * @since 1.0.0
+   */
+  contact: Omit<Contact, 'id'>;
+}
+
+/**
+ * Options for creating several contacts at once.
+ *
+ * @since 8.1.0
+ */
+export interface CreateContactsOptions {
+  /**
+   * Contacts to create, in the order their results are returned.
+   *
+   * @since 8.1.0
+   */
+  contacts: Omit<Contact, 'id'>[];
+}
+
+/**
+ * Options for updating several contacts at once.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export type PickContactOptions = PickContactsOptions;
+export interface UpdateContactsOptions {
+  /**
+   * Contacts to update, each with the same shape as `updateContactById` options.
+   *
+   * @since 8.1.0
+   */
+  contacts: UpdateContactByIdOptions[];
+}
 
 /**
- * Alias for PickContactsResult.
+ * Options for deleting several contacts at once.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export type PickContactResult = PickContactsResult;
+export interface DeleteContactsOptions {
+  /**
+   * The IDs of the contacts to delete.
+   *
+   * @since 8.1.0
+   */
+  ids: string[];
+}
 
 /**
- * Options for updating a contact by ID.
+ * Outcome of one item of a bulk write.
  *
- * @since 1.0.0
+ * @since 8.1.0
  */
-export interface UpdateContactByIdOptions {
+export interface BulkWriteItemResult {
   /**
-   * The ID of the contact to update.
+   * Whether this item was written.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  id: string;
+  success: boolean;
 
   /**
-   * Updated contact information.
+   * The ID of the contact. For `createContacts`, only set when the contact was created.
    *
-   * @since 1.0.0
+   * @since 8.1.0
    */
-  contact: Omit<Contact, 'id'>;
+  id?: string;
+
+  /**
+   * Why this item failed.
+   *
+   * @since 8.1.0
+   */
+  error?: string;
+}
+
+/**
+ * Result of a bulk write. One entry per input item, in input order.
+ *
+ * @since 8.1.0
+ */
+export interface BulkWriteResult {
+  /**
+   * Per-item outcomes.
+   *
+   * @since 8.1.0
+   */
+  results: BulkWriteItemResult[];
+}
+
+/**
+ * Statistics of the in-memory contact cache.
+ *
+ * @since 8.1.0
+ */
+export interface CacheStats {
+  /**
+   * Whether the cache is enabled through the `cache` plugin configuration.
+   *
+   * @since 8.1.0
+   */
+  enabled: boolean;
+
+  /**
+   * Number of contacts currently cached.
+   *
+   * @since 8.1.0
+   */
+  size: number;
+
+  /**
+   * Maximum number of contacts the cache can hold.
+   *
+   * @since 8.1.0
+   */
+  maxSize: number;
+
+  /**
+   * Number of reads served from the cache.
+   *
+   * @since 8.1.0
+   */
+  hits: number;
+
+  /**
+   * Number of reads that had to query the device contacts.
+   *
+   * @since 8.1.0
+   */
+  misses: number;
+
+  /**
+   * Number of entries removed to stay within `maxSize`.
+   *
+   * @since 8.1.0
+   */
+  evictions: number;
+}
+
+/**
+ * Options for cancelling a call.
+ *
+ * @since 8.1.0
+ */
+export interface CancelOptions {
+  /**
+   * The `callId` the call was started with.
+   *
+   * @since 8.1.0
+   */
+  callId: string;
+}
+
+/**
+ * Result from cancelling a call.
+ *
+ * @since 8.1.0
+ */
+export interface CancelResult {
+  /**
+   * Whether a running call was found and cancelled. `false` if it had already finished.
+   *
+   * @since 8.1.0
+   */
+  cancelled: boolean;
+}
+
+/**
+ * Options for reading the recorded performance metrics.
+ *
+ * @since 8.1.0
+ */
+export interface GetPerformanceMetricsOptions {
+  /**
+   * Clear the totals after reading them, so the next read only covers the calls made in between.
+   *
+   * @default false
+   * @since 8.1.0
+   */
+  reset?: boolean;
+}
+
+/**
+ * What one or more calls of a plugin method did against the device contacts.
+ *
+ * @since 8.1.0
+ */
+export interface CallPerformanceMetrics {
+  /**
+   * Number of contacts provider queries.
+   *
+   * @since 8.1.0
+   */
+  queries: number;
+
+  /**
+   * Number of rows read from the query results.
+   *
+   * @since 8.1.0
+   */
+  rowsScanned: number;
+
+  /**
+   * Rows read per MIME type, such as `phone_v2` or `email_v2`. Rows of queries outside the contact
+   * data table are counted under the table name, such as `contacts` or `raw_contacts`.
+   *
+   * @since 8.1.0
+   */
+  rowsByMimeType: Record<string, number>;
+
+  /**
+   * Estimated size of the values read out of query results: strings at their UTF-8 length, blobs at
+   * their length and numbers at eight bytes each. This is not the memory the cursor windows use.
+   *
+   * @since 8.1.0
+   */
+  cursorBytes: number;
+
+  /**
+   * Estimated size of the JSON returned to JavaScript, including pages emitted as events.
+   *
+   * @since 8.1.0
+   */
+  payloadBytes: number;
+
+  /**
+   * Time spent waiting for a free worker before running.
+   *
+   * @since 8.1.0
+   */
+  waitMs: number;
+
+  /**
+   * Time spent in provider queries, including moving through their results.
+   *
+   * @since 8.1.0
+   */
+  queryMs: number;
+
+  /**
+   * Time spent reading the rows into contacts.
+   *
+   * @since 8.1.0
+   */
+  decodeMs: number;
+
+  /**
+   * Time spent converting contacts to the JavaScript result.
+   *
+   * @since 8.1.0
+   */
+  serializeMs: number;
+
+  /**
+   * Time from starting to finishing the call, not counting `waitMs`. Work split across parallel
+   * workers can make the phase times add up to more than this.
+   *
+   * @since 8.1.0
+   */
+  totalMs: number;
+}
+
+/**
+ * Totals of every recorded call of a plugin method.
+ *
+ * @since 8.1.0
+ */
+export interface MethodPerformanceMetrics extends CallPerformanceMetrics {
+  /**
+   * Number of calls recorded.
+   *
+   * @since 8.1.0
+   */
+  calls: number;
+
+  /**
+   * Longest `totalMs` of a single call.
+   *
+   * @since 8.1.0
+   */
+  maxTotalMs: number;
+}
+
+/**
+ * Recorded performance metrics.
+ *
+ * @since 8.1.0
+ */
+export interface PerformanceMetrics {
+  /**
+   * Whether recording is enabled through the `performanceMetrics` plugin configuration.
+   *
+   * @since 8.1.0
+   */
+  enabled: boolean;
+
+  /**
+   * Totals per plugin method name, such as `getContacts`.
+   *
+   * @since 8.1.0
+   */
+  methods: Record<string, MethodPerformanceMetrics>;
+}
+
+/**
+ * Event emitted when a recorded call finishes.
+ *
+ * @since 8.1.0
+ */
+export interface PerformanceMetricsEvent extends CallPerformanceMetrics {
+  /**
+   * Name of the plugin method that was called.
+   *
+   * @since 8.1.0
+   */
+  method: string;
 }
 
 /**
@@ -883,12 +2032,28 @@ export interface IsAvailableResult {
  */
 export interface CapacitorContactsPlugin {
   /**
-   * Count the total number of contacts on the device.
+   * Count the total number of contacts on the device, or the contacts matching all the given filters.
+   * On Android the count is computed by the contacts provider without reading the contacts,
+   * except when a group or account filter is combined with other filters.
    *
+   * @param options - Optional filters
    * @returns Promise that resolves with the total count of contacts
    * @since 1.0.0
    */
-  countContacts(): Promise<CountContactsResult>;
+  countContacts(options?: CountContactsOptions): Promise<CountContactsResult>;
+
+  /**
+   * Get the alphabet sections of the contact list with their offsets and sizes, for section headers
+   * and fast-scroll rails, without reading the contacts. Pair it with `getContacts({ offset, limit })`
+   * to load only the sections on screen. Sections follow the device's address book grouping, which
+   * matches the `getContacts` order for names sorted alphabetically in the device locale.
+   *
+   * Only available on Android.
+   *
+   * @returns Promise that resolves with the sections
+   * @since 8.1.0
+   */
+  getSectionIndex(): Promise<GetSectionIndexResult>;
 
   /**
    * Create a new contact programmatically.
@@ -899,6 +2064,16 @@ export interface CapacitorContactsPlugin {
    */
   createContact(options: CreateContactOptions): Promise<CreateContactResult>;
 
+  /**
+   * Create many contacts with as few provider transactions as possible.
+   * A contact that cannot be created is reported in its result entry and does not fail the others.
+   *
+   * @param options - The contacts to create
+   * @returns Promise that resolves with one result per contact, in input order
+   * @since 8.1.0
+   */
+  createContacts(options: CreateContactsOptions): Promise<BulkWriteResult>;
+
   /**
    * Create a new contact group.
    *
@@ -917,6 +2092,15 @@ export interface CapacitorContactsPlugin {
    */
   deleteContactById(options: DeleteContactByIdOptions): Promise<void>;
 
+  /**
+   * Delete many contacts with as few provider transactions as possible.
+   *
+   * @param options - The IDs of the contacts to delete
+   * @returns Promise that resolves with one result per ID, in input order
+   * @since 8.1.0
+   */
+  deleteContacts(options: DeleteContactsOptions): Promise<BulkWriteResult>;
+
   /**
    * Delete a group by ID.
    *
@@ -956,10 +2140,28 @@ export interface CapacitorContactsPlugin {
   /**
    * Get all accounts available on the device.
    *
+   * On Android the list is cached until the address book changes, so repeated calls are cheap.
+   *
+   * @param options - Whether to include the contact count of each account
    * @returns Promise that resolves with the list of accounts
    * @since 1.0.0
    */
-  getAccounts(): Promise<GetAccountsResult>;
+  getAccounts(options?: GetAccountsOptions): Promise<GetAccountsResult>;
+
+  /**
+   * Get the contacts created, updated or deleted since a previous sync.
+   *
+   * The cost is proportional to the number of changes rather than the size of the address book.
+   * Deletions are only kept by the system for a limited time (30 days on most devices),
+   * so do a full sync when the result has `fullSyncRequired` set.
+   *
+   * Only available on Android.
+   *
+   * @param options - The sync token of the previous call and optional fields
+   * @returns Promise that resolves with the changed contacts, deleted IDs and a new sync token
+   * @since 8.1.0
+   */
+  getChangedContacts(options?: GetChangedContactsOptions): Promise<GetChangedContactsResult>;
 
   /**
    * Get a specific contact by ID.
@@ -970,6 +2172,27 @@ export interface CapacitorContactsPlugin {
    */
   getContactById(options: GetContactByIdOptions): Promise<GetContactByIdResult>;
 
+  /**
+   * Get several contacts by ID in one call.
+   *
+   * The contacts are read in batches rather than one lookup per ID, which makes this
+   * much cheaper than calling `getContactById` in a loop.
+   *
+   * @param options - The IDs and optional fields to retrieve
+   * @returns Promise that resolves with the contacts in the requested order, with null for missing IDs
+   * @since 8.1.0
+   */
+  getContactsByIds(options: GetContactsByIdsOptions): Promise<GetContactsByIdsResult>;
+
+  /**
+   * Load the photo of a single contact on demand.
+   *
+   * @param options - The contact ID and the photo size to load
+   * @returns Promise that resolves with the Base64-encoded photo, or null if there is none
+   * @since 8.1.0
+   */
+  getContactPhoto(options: GetContactPhotoOptions): Promise<GetContactPhotoResult>;
+
   /**
    * Get all contacts from the device.
    *
@@ -991,10 +2214,22 @@ export interface CapacitorContactsPlugin {
   /**
    * Get all contact groups.
    *
+   * @param options - Whether to include the member count of each group
    * @returns Promise that resolves with the list of groups
    * @since 1.0.0
    */
-  getGroups(): Promise<GetGroupsResult>;
+  getGroups(options?: GetGroupsOptions): Promise<GetGroupsResult>;
+
+  /**
+   * Get the contacts of a group.
+   *
+   * Only the group's members are read, so this is much cheaper than filtering all contacts by `groupIds`.
+   *
+   * @param options - The group ID, paging and optional fields to retrieve
+   * @returns Promise that resolves with the contacts of the group
+   * @since 8.1.0
+   */
+  getContactsInGroup(options: GetContactsInGroupOptions): Promise<GetContactsInGroupResult>;
 
   /**
    * Check if contacts are available on the device.
@@ -1012,6 +2247,16 @@ export interface CapacitorContactsPlugin {
    */
   isSupported(): Promise<IsSupportedResult>;
 
+  /**
+   * Resolve many phone numbers to the contacts they belong to in one call, for caller-ID style matching.
+   * Numbers are matched the way the phone app matches them, regardless of formatting.
+   *
+   * @param options - The phone numbers to resolve
+   * @returns Promise that resolves with one result per number, in input order
+   * @since 8.1.0
+   */
+  lookupPhoneNumbers(options: LookupPhoneNumbersOptions): Promise<LookupPhoneNumbersResult>;
+
   /**
    * Open the device's contacts settings.
    *
@@ -1038,6 +2283,29 @@ export interface CapacitorContactsPlugin {
    */
   pickContacts(options?: PickContactsOptions): Promise<PickContactsResult>;
 
+  /**
+   * Search contacts by name, phone number or email address.
+   * Matching is done by the platform contact store, so only matching contacts are read.
+   *
+   * @param options - The search text and the fields to return
+   * @returns Promise that resolves with the matching contacts
+   * @since 8.1.0
+   */
+  searchContacts(options: SearchContactsOptions): Promise<SearchContactsResult>;
+
+  /**
+   * Stream contacts from the device in pages of 50.
+   *
+   * Each page is delivered through the `contactsPage` event as soon as it is ready,
+   * followed by a single `contactsStreamComplete` event. Only one page is held in
+   * memory at a time, which keeps large address books responsive.
+   *
+   * @param options - Optional fields and pagination options
+   * @returns Promise that resolves with the total number of streamed contacts
+   * @since 8.1.0
+   */
+  streamContacts(options?: StreamContactsOptions): Promise<StreamContactsResult>;
+
   /**
    * Update an existing contact by ID.
    *
@@ -1047,6 +2315,15 @@ export interface CapacitorContactsPlugin {
    */
   updateContactById(options: UpdateContactByIdOptions): Promise<void>;
 
+  /**
+   * Update many contacts with as few provider transactions as possible.
+   *
+   * @param options - The contacts to update
+   * @returns Promise that resolves with one result per contact, in input order
+   * @since 8.1.0
+   */
+  updateContacts(options: UpdateContactsOptions): Promise<BulkWriteResult>;
+
   /**
    * Check the current permission status for contacts.
    *
@@ -1064,6 +2341,39 @@ export interface CapacitorContactsPlugin {
    */
   requestPermissions(options?: RequestPermissionsOptions): Promise<PermissionStatus>;
 
+  /**
+   * Get hit, miss and eviction counters of the in-memory contact cache.
+   *
+   * @returns Promise that resolves with the cache statistics
+   * @since 8.1.0
+   */
+  getCacheStats(): Promise<CacheStats>;
+
+  /**
+   * Get the performance metrics recorded since startup or the last reset, per plugin method.
+   * Requires the `performanceMetrics` plugin configuration; otherwise `enabled` is `false` and no
+   * methods are reported.
+   *
+   * Only available on Android.
+   *
+   * @param options - Optional reset of the totals after reading them
+   * @returns Promise that resolves with the recorded metrics
+   * @since 8.1.0
+   */
+  getPerformanceMetrics(options?: GetPerformanceMetricsOptions): Promise<PerformanceMetrics>;
+
+  /**
+   * Cancel a `getContacts` call that was started with a `callId`.
+   * Its provider queries are interrupted and it rejects with `Call was cancelled.`.
+   *
+   * Only available on Android.
+   *
+   * @param options - The `callId` of the call to cancel
+   * @returns Promise that resolves with whether a running call was cancelled
+   * @since 8.1.0
+   */
+  cancel(options: CancelOptions): Promise<CancelResult>;
+
   /**
    * Get the native Capacitor plugin version.
    *
@@ -1071,4 +2381,70 @@ export interface CapacitorContactsPlugin {
    * @since 1.0.0
    */
   getPluginVersion(): Promise<{ version: string }>;
+
+  /**
+   * Listen for pages of contacts emitted by `streamContacts`.
+   *
+   * @param eventName - The event to listen for
+   * @param listenerFunc - Callback invoked with each page
+   * @returns Promise that resolves with a handle to remove the listener
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'contactsPage',
+    listenerFunc: (event: ContactsPageEvent) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Listen for the end of a `streamContacts` call.
+   *
+   * @param eventName - The event to listen for
+   * @param listenerFunc - Callback invoked once all pages have been emitted
+   * @returns Promise that resolves with a handle to remove the listener
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'contactsStreamComplete',
+    listenerFunc: (event: ContactsStreamCompleteEvent) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Listen for background refreshes of the contacts snapshot read with `getContacts({ source: 'snapshot' })`.
+   * Fetch the list again to show the changes.
+   *
+   * Only available on Android.
+   *
+   * @param eventName - The event to listen for
+   * @param listenerFunc - Callback invoked with the number of changed contacts
+   * @returns Promise that resolves with a handle to remove the listener
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'snapshotUpdated',
+    listenerFunc: (event: SnapshotUpdatedEvent) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Listen for the metrics of every contacts call as it finishes.
+   * Requires the `performanceMetrics` plugin configuration.
+   *
+   * Only available on Android.
+   *
+   * @param eventName - The event to listen for
+   * @param listenerFunc - Callback invoked with the metrics of the finished call
+   * @returns Promise that resolves with a handle to remove the listener
+   * @since 8.1.0
+   */
+  addListener(
+    eventName: 'performanceMetrics',
+    listenerFunc: (event: PerformanceMetricsEvent) => void,
+  ): Promise<PluginListenerHandle>;
+
+  /**
+   * Remove all listeners for this plugin.
+   *
+   * @returns Promise that resolves when all listeners are removed
+   * @since 8.1.0
+   */
+  removeAllListeners(): Promise<void>;
 }
@@ -7,4 +7,5 @@ const CapacitorContacts = registerPlugin<CapacitorContactsPlugin>('CapacitorCont
 });
 
 export * from './definitions';
+export { decodeColumnarContacts } from './columnar';
 export { CapacitorContacts };
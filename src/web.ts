@@ -1,39 +1,66 @@
 import { WebPlugin } from '@capacitor/core';
 
 import type {
+  BulkWriteResult,
+  CacheStats,
+  CancelOptions,
+  CancelResult,
   CapacitorContactsPlugin,
+  CountContactsOptions,
   CountContactsResult,
   CreateContactOptions,
   CreateContactResult,
+  CreateContactsOptions,
   CreateGroupOptions,
   CreateGroupResult,
   DeleteContactByIdOptions,
+  DeleteContactsOptions,
   DeleteGroupByIdOptions,
   DisplayContactByIdOptions,
   DisplayCreateContactOptions,
   DisplayCreateContactResult,
   DisplayUpdateContactByIdOptions,
+  GetAccountsOptions,
   GetAccountsResult,
+  GetChangedContactsOptions,
+  GetChangedContactsResult,
   GetContactByIdOptions,
   GetContactByIdResult,
+  GetContactsByIdsOptions,
+  GetContactsByIdsResult,
+  GetContactsInGroupOptions,
+  GetContactsInGroupResult,
+  GetContactPhotoOptions,
+  GetContactPhotoResult,
   GetContactsOptions,
   GetContactsResult,
   GetGroupByIdOptions,
   GetGroupByIdResult,
+  GetGroupsOptions,
   GetGroupsResult,
+  GetPerformanceMetricsOptions,
+  GetSectionIndexResult,
   IsAvailableResult,
   IsSupportedResult,
+  LookupPhoneNumbersOptions,
+  LookupPhoneNumbersResult,
+  PerformanceMetrics,
   PermissionStatus,
   PickContactOptions,
   PickContactResult,
   PickContactsOptions,
   PickContactsResult,
   RequestPermissionsOptions,
+  SearchContactsOptions,
+  SearchContactsResult,
+  StreamContactsOptions,
+  StreamContactsResult,
   UpdateContactByIdOptions,
+  UpdateContactsOptions,
 } from './definitions';
 
 export class CapacitorContactsWeb extends WebPlugin implements CapacitorContactsPlugin {
-  async countContacts(): Promise<CountContactsResult> {
+  async countContacts(_options?: CountContactsOptions): Promise<CountContactsResult> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
@@ -41,6 +68,10 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
+  async createContacts(_options: CreateContactsOptions): Promise<BulkWriteResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
   async createGroup(_options: CreateGroupOptions): Promise<CreateGroupResult> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
@@ -49,6 +80,10 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
+  async deleteContacts(_options: DeleteContactsOptions): Promise<BulkWriteResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
   async deleteGroupById(_options: DeleteGroupByIdOptions): Promise<void> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
@@ -65,7 +100,11 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
-  async getAccounts(): Promise<GetAccountsResult> {
+  async getAccounts(_options?: GetAccountsOptions): Promise<GetAccountsResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
+  async getChangedContacts(_options?: GetChangedContactsOptions): Promise<GetChangedContactsResult> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
@@ -73,6 +112,18 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
+  async getContactsByIds(_options: GetContactsByIdsOptions): Promise<GetContactsByIdsResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
+  async getContactsInGroup(_options: GetContactsInGroupOptions): Promise<GetContactsInGroupResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
+  async getContactPhoto(_options: GetContactPhotoOptions): Promise<GetContactPhotoResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
   async getContacts(_options?: GetContactsOptions): Promise<GetContactsResult> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
@@ -81,7 +132,7 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
-  async getGroups(): Promise<GetGroupsResult> {
+  async getGroups(_options?: GetGroupsOptions): Promise<GetGroupsResult> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
@@ -93,6 +144,10 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     return { isSupported: false };
   }
 
+  async lookupPhoneNumbers(_options: LookupPhoneNumbersOptions): Promise<LookupPhoneNumbersResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
   async openSettings(): Promise<void> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
@@ -105,10 +160,22 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
+  async searchContacts(_options: SearchContactsOptions): Promise<SearchContactsResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
+  async streamContacts(_options?: StreamContactsOptions): Promise<StreamContactsResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
   async updateContactById(_options: UpdateContactByIdOptions): Promise<void> {
     throw this.unavailable('Contacts API not available on the web implementation.');
   }
 
+  async updateContacts(_options: UpdateContactsOptions): Promise<BulkWriteResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
   async checkPermissions(): Promise<PermissionStatus> {
     return { readContacts: 'denied', writeContacts: 'denied' };
   }
@@ -117,6 +184,22 @@ export class CapacitorContactsWeb extends WebPlugin implements CapacitorContacts
     return { readContacts: 'denied', writeContacts: 'denied' };
   }
 
+  async getCacheStats(): Promise<CacheStats> {
+    return { enabled: false, size: 0, maxSize: 0, hits: 0, misses: 0, evictions: 0 };
+  }
+
+  async getSectionIndex(): Promise<GetSectionIndexResult> {
+    throw this.unavailable('Contacts API not available on the web implementation.');
+  }
+
+  async getPerformanceMetrics(_options?: GetPerformanceMetricsOptions): Promise<PerformanceMetrics> {
+    return { enabled: false, methods: {} };
+  }
+
+  async cancel(_options: CancelOptions): Promise<CancelResult> {
+    return { cancelled: false };
+  }
+
   async getPluginVersion(): Promise<{ version: string }> {
     return { version: 'web' };
   }